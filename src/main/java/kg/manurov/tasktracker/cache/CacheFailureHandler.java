@@ -0,0 +1,32 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+
+/**
+ * Ошибка кэша не должна ронять запрос: чтение считается промахом, запись и инвалидация пропускаются.
+ */
+@Slf4j
+public class CacheFailureHandler implements CacheErrorHandler {
+
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        log.warn("Ошибка чтения кэша {} по ключу {}: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+        log.warn("Ошибка записи в кэш {} по ключу {}: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+        log.warn("Ошибка инвалидации кэша {} по ключу {}: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCacheClearError(RuntimeException exception, Cache cache) {
+        log.warn("Ошибка очистки кэша {}: {}", cache.getName(), exception.getMessage());
+    }
+}
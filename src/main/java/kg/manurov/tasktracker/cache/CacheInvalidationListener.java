@@ -0,0 +1,40 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+    private final List<NearCache> nearCaches;
+    private final String instanceId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.parse(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+
+        log.debug("Получена инвалидация ближнего кэша {} по ключу {}", invalidation.cacheName(), invalidation.key());
+        for (NearCache nearCache : nearCaches) {
+            if (invalidation.isClear()) {
+                nearCache.clearLocal(invalidation.cacheName());
+            } else {
+                nearCache.evictLocal(invalidation.cacheName(), invalidation.key());
+            }
+        }
+    }
+}
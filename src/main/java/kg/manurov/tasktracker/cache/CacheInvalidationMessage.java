@@ -0,0 +1,31 @@
+package kg.manurov.tasktracker.cache;
+
+/**
+ * Сообщение об инвалидации ближнего кэша. Пустой key означает очистку всего кэша.
+ * Формат в канале: origin, cacheName и key, разделенные переводом строки.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+    private static final char SEPARATOR = '\n';
+
+    public static CacheInvalidationMessage parse(String payload) {
+        int first = payload.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : payload.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Некорректное сообщение инвалидации кэша: " + payload);
+        }
+        String key = payload.substring(second + 1);
+        return new CacheInvalidationMessage(
+                payload.substring(0, first),
+                payload.substring(first + 1, second),
+                key.isEmpty() ? null : key
+        );
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    public String serialize() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + (key != null ? key : "");
+    }
+}
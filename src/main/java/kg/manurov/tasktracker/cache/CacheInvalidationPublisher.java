@@ -0,0 +1,46 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final CircuitBreaker circuitBreaker;
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel, CircuitBreaker circuitBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(instanceId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(instanceId, cacheName, null));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        // Остальные узлы догонят изменения по истечении TTL ближнего кэша
+        if (!circuitBreaker.tryAcquire()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, message.serialize());
+            circuitBreaker.onSuccess();
+        } catch (RuntimeException e) {
+            // Любая ошибка считается неудачей: иначе пробный вызов не завершится и автомат останется полуоткрытым
+            circuitBreaker.onFailure();
+            log.warn("Не удалось опубликовать инвалидацию кэша {} по ключу {}: {}",
+                    message.cacheName(), message.key(), e.getMessage());
+        }
+    }
+}
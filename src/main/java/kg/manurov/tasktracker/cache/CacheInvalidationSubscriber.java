@@ -0,0 +1,78 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поддерживает подписку на канал инвалидации. Контейнер слушателей не стартует вместе с контекстом,
+ * чтобы недоступный Redis не мешал запуску приложения: подписка выполняется после старта и
+ * повторяется, пока не станет активной. Пока подписки нет, ближний кэш не используется,
+ * а при ее восстановлении очищается, так как пропущенные сообщения не доставляются повторно.
+ */
+@Slf4j
+public class CacheInvalidationSubscriber implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    private final RedisMessageListenerContainer container;
+    private final List<NearCache> nearCaches;
+    private final Duration retryInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean listening;
+
+    public CacheInvalidationSubscriber(RedisMessageListenerContainer container,
+                                       List<NearCache> nearCaches,
+                                       Duration retryInterval) {
+        this.container = container;
+        this.nearCaches = nearCaches;
+        this.retryInterval = retryInterval;
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        scheduler.scheduleWithFixedDelay(this::ensureSubscribed, 0, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdownNow();
+        container.destroy();
+    }
+
+    private void ensureSubscribed() {
+        if (container.isRunning() && container.isListening()) {
+            listening = true;
+            return;
+        }
+
+        listening = false;
+        try {
+            container.stop();
+            container.start();
+        } catch (RuntimeException e) {
+            log.warn("Подписка на инвалидацию кэша недоступна, ближний кэш отключен: {}", e.getMessage());
+            return;
+        }
+
+        if (container.isListening()) {
+            nearCaches.forEach(NearCache::clearAllLocal);
+            listening = true;
+            log.info("Подписка на инвалидацию кэша активна, ближний кэш включен");
+        }
+    }
+}
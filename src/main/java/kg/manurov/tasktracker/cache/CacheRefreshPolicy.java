@@ -0,0 +1,18 @@
+package kg.manurov.tasktracker.cache;
+
+import java.time.Duration;
+
+/**
+ * Правила обновления записей кэша.
+ *
+ * @param ttl                  время, в течение которого запись считается свежей
+ * @param staleWhileRevalidate сколько после истечения ttl запись еще отдается, пока она обновляется в фоне
+ * @param earlyRefreshBeta     коэффициент вероятностного досрочного обновления, 0 отключает его
+ */
+public record CacheRefreshPolicy(Duration ttl, Duration staleWhileRevalidate, double earlyRefreshBeta) {
+
+    // Redis хранит запись, пока ее еще можно отдать как устаревшую
+    public Duration storeTtl() {
+        return ttl.plus(staleWhileRevalidate);
+    }
+}
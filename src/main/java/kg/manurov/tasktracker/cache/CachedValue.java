@@ -0,0 +1,22 @@
+package kg.manurov.tasktracker.cache;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Значение кэша вместе с моментом загрузки и временем, которое ушло на его вычисление.
+ * По этим данным {@link TwoLevelCache} решает, пора ли обновлять запись.
+ * Нулевой {@code loadedAt} означает запись без метаданных, записанную до их появления.
+ */
+public record CachedValue(Object value, long loadedAt, long computeMillis) implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    static CachedValue legacy(Object value) {
+        return new CachedValue(value, 0, 0);
+    }
+
+    boolean hasMetadata() {
+        return loadedAt > 0;
+    }
+}
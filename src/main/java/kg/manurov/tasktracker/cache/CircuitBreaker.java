@@ -0,0 +1,67 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Автомат защиты для обращений к Redis. После {@code failureThreshold} ошибок подряд размыкается
+ * и сразу отклоняет вызовы. По истечении {@code openDuration} пропускает один пробный вызов:
+ * успех замыкает автомат, ошибка снова размыкает его.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        return current == State.OPEN
+                && System.currentTimeMillis() - openedAt >= openMillis
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            log.info("{} снова доступен, автомат защиты замкнут", name);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    private void open(State from) {
+        openedAt = System.currentTimeMillis();
+        if (state.compareAndSet(from, State.OPEN)) {
+            log.warn("{} недоступен, автомат защиты разомкнут на {} мс", name, openMillis);
+        }
+    }
+}
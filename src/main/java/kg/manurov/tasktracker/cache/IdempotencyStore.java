@@ -0,0 +1,158 @@
+package kg.manurov.tasktracker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище результатов запросов по ключу идемпотентности. Основная копия лежит в Redis и видна всем узлам,
+ * копия в памяти процесса ограничена по размеру и используется, пока Redis недоступен.
+ * <p>
+ * Пока запрос выполняется, в Redis держится блокировка ключа, чтобы его повтор на другом узле не выполнил
+ * запрос второй раз. Без Redis повторы согласуются только в пределах узла.
+ * <p>
+ * Значение блокировки — токен конкретного захвата. Пока запрос выполняется, блокировка продлевается
+ * каждую треть lock-ttl, а снимается и продлевается только при совпадении токена: узел, чья блокировка
+ * все же истекла, не снимет блокировку, которую после него захватил другой узел.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements DisposableBean {
+    private static final String KEY_PREFIX = "task-tracker:idempotency:";
+    private static final String LOCK_SUFFIX = ":lock";
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<String, String> local;
+    private final Duration ttl;
+    private final Duration lockTtl;
+    private final Map<String, ScheduledFuture<?>> renewals = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lock-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate,
+                            CircuitBreaker redisCircuitBreaker,
+                            @Value("${task.idempotency.local.max-size:10000}") long localMaxSize,
+                            @Value("${task.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${task.idempotency.lock-ttl:30s}") Duration lockTtl) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = redisCircuitBreaker;
+        this.local = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(ttl).build();
+        this.ttl = ttl;
+        this.lockTtl = lockTtl;
+    }
+
+    public String get(String key) {
+        String value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = execute(() -> redisTemplate.opsForValue().get(KEY_PREFIX + key), null);
+        if (value != null) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    public void put(String key, String value) {
+        local.put(key, value);
+        execute(() -> {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, value, ttl);
+            return null;
+        }, null);
+    }
+
+    /**
+     * Блокировка истекает сама, если узел упал, не успев ее снять.
+     *
+     * @return токен захвата для {@link #unlock}, null если ключ заблокирован другим запросом
+     */
+    public String tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = execute(() -> redisTemplate.opsForValue().setIfAbsent(lockKey(key), token, lockTtl), null);
+        if (Boolean.FALSE.equals(locked)) {
+            return null;
+        }
+        // Без Redis блокировки нет, продлевать нечего
+        if (locked != null) {
+            long period = Math.max(1, lockTtl.toMillis() / 3);
+            renewals.put(token, scheduler.scheduleWithFixedDelay(() -> renew(key, token),
+                    period, period, TimeUnit.MILLISECONDS));
+        }
+        return token;
+    }
+
+    public void unlock(String key, String token) {
+        ScheduledFuture<?> renewal = renewals.remove(token);
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+        execute(() -> redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey(key)), token), null);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void renew(String key, String token) {
+        try {
+            Long renewed = execute(() -> redisTemplate.execute(RENEW_SCRIPT, List.of(lockKey(key)), token,
+                    String.valueOf(lockTtl.toMillis())), null);
+            if (Long.valueOf(0).equals(renewed)) {
+                log.warn("Блокировка ключа идемпотентности {} истекла до завершения запроса", key);
+                ScheduledFuture<?> renewal = renewals.remove(token);
+                if (renewal != null) {
+                    renewal.cancel(false);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось продлить блокировку ключа идемпотентности {}: {}", key, e.getMessage());
+        }
+    }
+
+    private String lockKey(String key) {
+        return KEY_PREFIX + key + LOCK_SUFFIX;
+    }
+
+    private <T> T execute(Supplier<T> operation, T fallback) {
+        if (!circuitBreaker.tryAcquire()) {
+            return fallback;
+        }
+        try {
+            T result = operation.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure();
+            log.debug("Хранилище ключей идемпотентности в Redis недоступно: {}", e.getMessage());
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package kg.manurov.tasktracker.cache;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Кэш в памяти процесса, который сбрасывается по сообщениям инвалидации от других узлов.
+ * Пока сообщения не доставляются, такой кэш не должен использоваться.
+ */
+public interface NearCache {
+
+    void evictLocal(String cacheName, String key);
+
+    void clearLocal(String cacheName);
+
+    void clearAllLocal();
+
+    void setLocalCacheEnabled(BooleanSupplier localCacheEnabled);
+}
@@ -0,0 +1,144 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Обращается к удаленному кэшу через {@link CircuitBreaker}. Ошибки доступа к Redis и разомкнутый
+ * автомат превращаются в промах, поэтому данные читаются из базы, а запросы не ждут таймаутов.
+ * Если во время сбоя запись или инвалидация не дошла до Redis, кэш очищается при первом
+ * успешном обращении, чтобы не отдавать значения, устаревшие за время сбоя.
+ */
+@Slf4j
+public class ResilientCache implements Cache {
+    private final Cache delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicBoolean missedWrites = new AtomicBoolean();
+
+    public ResilientCache(Cache delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return execute(() -> delegate.get(key), null, false);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return execute(() -> delegate.get(key, type), null, false);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.get();
+            return value;
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        execute(() -> {
+            delegate.put(key, value);
+            return null;
+        }, null, true);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return execute(() -> delegate.putIfAbsent(key, value), null, true);
+    }
+
+    @Override
+    public void evict(Object key) {
+        execute(() -> {
+            delegate.evict(key);
+            return null;
+        }, null, true);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return execute(() -> delegate.evictIfPresent(key), false, true);
+    }
+
+    @Override
+    public void clear() {
+        execute(() -> {
+            delegate.clear();
+            return null;
+        }, null, true);
+    }
+
+    @Override
+    public boolean invalidate() {
+        return execute(delegate::invalidate, false, true);
+    }
+
+    private <T> T execute(Supplier<T> operation, T fallback, boolean write) {
+        if (!circuitBreaker.tryAcquire()) {
+            if (write) {
+                missedWrites.set(true);
+            }
+            return fallback;
+        }
+
+        try {
+            if (missedWrites.compareAndSet(true, false)) {
+                clearAfterOutage();
+            }
+            T result = operation.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure();
+            if (write) {
+                missedWrites.set(true);
+            }
+            log.debug("Кэш {} недоступен: {}", getName(), e.getMessage());
+            return fallback;
+        } catch (RuntimeException e) {
+            // Redis ответил, ошибка не связана с его доступностью
+            circuitBreaker.onSuccess();
+            throw e;
+        }
+    }
+
+    private void clearAfterOutage() {
+        try {
+            delegate.clear();
+            log.info("Кэш {} очищен после сбоя Redis", getName());
+        } catch (RuntimeException e) {
+            missedWrites.set(true);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package kg.manurov.tasktracker.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Оборачивает кэши менеджера в {@link ResilientCache} с общим автоматом защиты.
+ */
+public class ResilientCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public ResilientCacheManager(CacheManager delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remoteCache = delegate.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new ResilientCache(remoteCache, circuitBreaker));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
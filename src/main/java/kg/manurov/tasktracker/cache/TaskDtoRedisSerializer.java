@@ -0,0 +1,333 @@
+package kg.manurov.tasktracker.cache;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Компактный бинарный формат для {@link TaskDto} и списков задач в Redis.
+ * <p>
+ * Заголовок: magic-байт, версия формата, флаги и тип значения. Далее идут задачи: битовая маска
+ * заполненных полей, id в varint, строки как varint-длина + UTF-8, статус как ordinal в одном байте,
+ * даты как секунды и наносекунды от эпохи. Тело больше порога сжимается Deflate.
+ * С версии 2 значение может быть обернуто в {@link CachedValue}: тогда перед задачами
+ * записываются момент загрузки и время вычисления. Версия 3 добавляет версию задачи.
+ * <p>
+ * Значения без заголовка читаются через JDK-сериализацию, поэтому уже лежащие в Redis записи
+ * остаются читаемыми и кэш не нужно сбрасывать при выкатке. Записи неизвестной версии
+ * считаются промахом кэша. Прочие типы значений пишутся JDK-сериализацией.
+ */
+public class TaskDtoRedisSerializer implements RedisSerializer<Object> {
+    static final byte MAGIC = 0x54;
+    static final byte VERSION = 3;
+    private static final byte VERSION_WITHOUT_METADATA = 1;
+
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final byte FLAG_METADATA = 1 << 1;
+    private static final byte TYPE_TASK = 0;
+    private static final byte TYPE_TASK_LIST = 1;
+    private static final int HEADER_SIZE = 4;
+    private static final int UNKNOWN_STATUS = 0xFF;
+    // Длина берется из самого значения: без предела поврежденная запись может запросить гигабайты памяти
+    private static final int MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_TITLE = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_STATUS = 1 << 3;
+    private static final int HAS_CREATED_AT = 1 << 4;
+    private static final int HAS_UPDATED_AT = 1 << 5;
+    private static final int HAS_VERSION = 1 << 6;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final RedisSerializer<Object> fallback = new JdkSerializationRedisSerializer();
+    private final int compressionThreshold;
+
+    public TaskDtoRedisSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte type;
+        byte flags = 0;
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        if (value instanceof CachedValue entry && isSupported(entry.value())) {
+            flags |= FLAG_METADATA;
+            writeVarLong(body, entry.loadedAt());
+            writeVarLong(body, entry.computeMillis());
+            value = entry.value();
+        }
+
+        if (value instanceof TaskDto task) {
+            type = TYPE_TASK;
+            writeTask(body, task);
+        } else if (isTaskList(value)) {
+            type = TYPE_TASK_LIST;
+            List<?> tasks = (List<?>) value;
+            writeVarLong(body, tasks.size());
+            for (Object task : tasks) {
+                writeTask(body, (TaskDto) task);
+            }
+        } else {
+            return fallback.serialize(value);
+        }
+
+        byte[] payload = body.toByteArray();
+        if (payload.length > compressionThreshold) {
+            payload = compress(payload);
+            flags |= FLAG_COMPRESSED;
+        }
+
+        byte[] result = new byte[HEADER_SIZE + payload.length];
+        result[0] = MAGIC;
+        result[1] = VERSION;
+        result[2] = flags;
+        result[3] = type;
+        System.arraycopy(payload, 0, result, HEADER_SIZE, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] < VERSION_WITHOUT_METADATA || bytes[1] > VERSION) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            if ((bytes[2] & FLAG_COMPRESSED) != 0) {
+                buffer = ByteBuffer.wrap(decompress(buffer));
+            }
+            if ((bytes[2] & FLAG_METADATA) != 0) {
+                long loadedAt = readVarLong(buffer);
+                long computeMillis = readVarLong(buffer);
+                return new CachedValue(readValue(buffer, bytes[3]), loadedAt, computeMillis);
+            }
+            return readValue(buffer, bytes[3]);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Не удалось прочитать задачи из кэша", e);
+        }
+    }
+
+    private Object readValue(ByteBuffer buffer, byte type) {
+        if (type == TYPE_TASK) {
+            return readTask(buffer);
+        }
+        int size = (int) readVarLong(buffer);
+        List<TaskDto> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(readTask(buffer));
+        }
+        return tasks;
+    }
+
+    private boolean isSupported(Object value) {
+        return value instanceof TaskDto || isTaskList(value);
+    }
+
+    private boolean isTaskList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof TaskDto)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeTask(ByteArrayOutputStream out, TaskDto task) {
+        int mask = (task.getId() != null ? HAS_ID : 0)
+                | (task.getTitle() != null ? HAS_TITLE : 0)
+                | (task.getDescription() != null ? HAS_DESCRIPTION : 0)
+                | (task.getStatus() != null ? HAS_STATUS : 0)
+                | (task.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                | (task.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+                | (task.getVersion() != null ? HAS_VERSION : 0);
+        out.write(mask);
+
+        if (task.getId() != null) {
+            writeVarLong(out, task.getId());
+        }
+        if (task.getTitle() != null) {
+            writeString(out, task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            writeString(out, task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            writeStatus(out, task.getStatus());
+        }
+        if (task.getCreatedAt() != null) {
+            writeDateTime(out, task.getCreatedAt());
+        }
+        if (task.getUpdatedAt() != null) {
+            writeDateTime(out, task.getUpdatedAt());
+        }
+        if (task.getVersion() != null) {
+            writeVarLong(out, task.getVersion());
+        }
+    }
+
+    private TaskDto readTask(ByteBuffer in) {
+        int mask = in.get() & 0xFF;
+        TaskDto task = new TaskDto();
+        if ((mask & HAS_ID) != 0) {
+            task.setId(readVarLong(in));
+        }
+        if ((mask & HAS_TITLE) != 0) {
+            task.setTitle(readString(in));
+        }
+        if ((mask & HAS_DESCRIPTION) != 0) {
+            task.setDescription(readString(in));
+        }
+        if ((mask & HAS_STATUS) != 0) {
+            task.setStatus(readStatus(in));
+        }
+        if ((mask & HAS_CREATED_AT) != 0) {
+            task.setCreatedAt(readDateTime(in));
+        }
+        if ((mask & HAS_UPDATED_AT) != 0) {
+            task.setUpdatedAt(readDateTime(in));
+        }
+        if ((mask & HAS_VERSION) != 0) {
+            task.setVersion(readVarLong(in));
+        }
+        return task;
+    }
+
+    // Статус хранится ordinal-байтом; нестандартное значение пишется строкой после маркера
+    private void writeStatus(ByteArrayOutputStream out, String status) {
+        for (TaskStatus candidate : STATUSES) {
+            if (candidate.name().equals(status)) {
+                out.write(candidate.ordinal());
+                return;
+            }
+        }
+        out.write(UNKNOWN_STATUS);
+        writeString(out, status);
+    }
+
+    private String readStatus(ByteBuffer in) {
+        int ordinal = in.get() & 0xFF;
+        return ordinal == UNKNOWN_STATUS ? readString(in) : STATUSES[ordinal].name();
+    }
+
+    private void writeDateTime(ByteArrayOutputStream out, LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        writeVarLong(out, (seconds << 1) ^ (seconds >> 63));
+        writeVarLong(out, dateTime.getNano());
+    }
+
+    private LocalDateTime readDateTime(ByteBuffer in) {
+        long zigzag = readVarLong(in);
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        int nanos = (int) readVarLong(in);
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private long readVarLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Некорректное varint-значение в кэше");
+    }
+
+    private byte[] compress(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+            writeVarLong(out, payload.length);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(ByteBuffer compressed) {
+        long declaredLength = readVarLong(compressed);
+        if (declaredLength < 0 || declaredLength > MAX_DECOMPRESSED_SIZE) {
+            throw new SerializationException("Некорректная длина сжатого значения в кэше: " + declaredLength);
+        }
+        int length = (int) declaredLength;
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] result = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int inflated = inflater.inflate(result, offset, length - offset);
+                // Обрезанное значение: без этой проверки inflate бесконечно возвращал бы 0
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Сжатое значение в кэше обрезано");
+                }
+                offset += inflated;
+            }
+            if (offset != length || !inflater.finished()) {
+                throw new SerializationException("Длина распакованного значения в кэше не совпадает с заявленной");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Не удалось распаковать значение из кэша", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package kg.manurov.tasktracker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.TaskETag;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ETag задач и списков, известные без обращения к кэшу и базе, чтобы условный GET отвечал 304 сразу.
+ * <p>
+ * Для списков хранится водяной знак: счетчик, который увеличивается при каждой инвалидации
+ * соответствующего кэша — локально после коммита, с других узлов по сообщениям инвалидации.
+ * ETag списка включает идентификатор узла, поэтому знаки разных узлов не совпадают.
+ * Для отдельных задач запоминаются версии, прочитанные при последней загрузке.
+ * <p>
+ * Пока сообщения инвалидации не доставляются, изменения на других узлах не видны, поэтому
+ * известные ETag не выдаются и запросы обрабатываются полностью.
+ */
+@Component
+// Сообщение инвалидации должно сначала сбросить кэши и только потом сменить водяной знак
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TaskETagRegistry implements NearCache {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong allTasks = new AtomicLong();
+    private final AtomicLong[] byStatus = new AtomicLong[STATUSES.length];
+    // Увеличивается при любой инвалидации задачи: версия, прочитанная до нее, не запоминается
+    private final AtomicLong taskInvalidations = new AtomicLong();
+    private final Cache<Long, Long> taskVersions;
+    private volatile BooleanSupplier enabled = () -> false;
+
+    public TaskETagRegistry(@Value("${task.cache.local.max-size:1000}") long maxSize) {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new AtomicLong();
+        }
+        this.taskVersions = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    public String allTasksETag() {
+        return enabled.getAsBoolean() ? "\"all-" + instanceId + "-" + allTasks.get() + "\"" : null;
+    }
+
+    public String statusETag(TaskStatus status, boolean includeArchived) {
+        if (!enabled.getAsBoolean()) {
+            return null;
+        }
+        return "\"" + status.name().toLowerCase() + (includeArchived ? "-archived-" : "-") + instanceId
+                + "-" + byStatus[status.ordinal()].get() + "\"";
+    }
+
+    public String taskETag(Long id) {
+        if (!enabled.getAsBoolean()) {
+            return null;
+        }
+        Long version = taskVersions.getIfPresent(id);
+        return version != null ? TaskETag.of(version) : null;
+    }
+
+    /**
+     * Метка для {@link #recordTask}: берется до загрузки задачи.
+     */
+    public long stamp() {
+        return taskInvalidations.get();
+    }
+
+    public void recordTask(Long id, Long version, long stamp) {
+        if (version == null || !enabled.getAsBoolean()) {
+            return;
+        }
+        taskVersions.put(id, version);
+        // Задачу могли изменить, пока она загружалась: тогда запомненная версия уже неверна
+        if (taskInvalidations.get() != stamp) {
+            taskVersions.invalidate(id);
+        }
+    }
+
+    /**
+     * Меняет знаки после коммита текущей транзакции, вслед за отложенной инвалидацией кэша.
+     */
+    public void invalidate(String cacheName, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLocal(cacheName, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLocal(cacheName, key);
+            }
+        });
+    }
+
+    @Override
+    public void evictLocal(String cacheName, String key) {
+        switch (cacheName) {
+            case CacheNames.TASK -> {
+                taskInvalidations.incrementAndGet();
+                taskVersions.invalidate(Long.valueOf(key));
+            }
+            case CacheNames.TASKS_BY_STATUS -> TaskStatus.fromString(key)
+                    .ifPresent(status -> byStatus[status.ordinal()].incrementAndGet());
+            case CacheNames.TASKS -> allTasks.incrementAndGet();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void clearLocal(String cacheName) {
+        switch (cacheName) {
+            case CacheNames.TASK -> {
+                taskInvalidations.incrementAndGet();
+                taskVersions.invalidateAll();
+            }
+            case CacheNames.TASKS_BY_STATUS -> {
+                for (AtomicLong watermark : byStatus) {
+                    watermark.incrementAndGet();
+                }
+            }
+            case CacheNames.TASKS -> allTasks.incrementAndGet();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void clearAllLocal() {
+        clearLocal(CacheNames.TASK);
+        clearLocal(CacheNames.TASKS_BY_STATUS);
+        clearLocal(CacheNames.TASKS);
+    }
+
+    @Override
+    public void setLocalCacheEnabled(BooleanSupplier localCacheEnabled) {
+        this.enabled = localCacheEnabled;
+    }
+}
@@ -0,0 +1,297 @@
+package kg.manurov.tasktracker.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Кэш из двух уровней: ограниченный по размеру и TTL кэш в памяти процесса (L1) перед Redis (L2).
+ * Чтение сначала обращается к L1 и только при промахе идет в Redis. Любая запись или инвалидация
+ * публикуется в Redis pub/sub, чтобы остальные узлы сбросили свою копию в L1.
+ * Пока узел не получает сообщения инвалидации, L1 не используется.
+ * <p>
+ * Загрузка через {@link #get(Object, Callable)} выполняется одним потоком на ключ, остальные ждут
+ * ее результат. Запись, срок которой скоро истекает, с некоторой вероятностью обновляется в фоне
+ * заранее, а истекшая запись в пределах окна stale-while-revalidate отдается сразу и обновляется в фоне.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, CachedValue> localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final BooleanSupplier localCacheEnabled;
+    private final CacheRefreshPolicy refreshPolicy;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    // Меняется при каждой инвалидации, чтобы загрузка, начатая до нее, не записала устаревшее значение
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, CachedValue> localCache,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         BooleanSupplier localCacheEnabled,
+                         CacheRefreshPolicy refreshPolicy,
+                         Executor refreshExecutor) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localCacheEnabled = localCacheEnabled;
+        this.refreshPolicy = refreshPolicy;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue entry = lookup(key);
+        if (entry == null || System.currentTimeMillis() >= expiresAt(entry)) {
+            return null;
+        }
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Значение в кэше " + name + " по ключу " + key + " не является экземпляром " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue entry = lookup(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            long expiresAt = expiresAt(entry);
+            if (now < expiresAt) {
+                if (shouldRefreshEarly(entry, expiresAt, now)) {
+                    refreshAsync(key, valueLoader);
+                }
+                return (T) entry.value();
+            }
+            if (now < expiresAt + refreshPolicy.staleWhileRevalidate().toMillis()) {
+                refreshAsync(key, valueLoader);
+                return (T) entry.value();
+            }
+        }
+        return (T) load(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = toLocalKey(key);
+        CachedValue entry = new CachedValue(value, System.currentTimeMillis(), 0);
+        invalidations.incrementAndGet();
+        remoteCache.put(key, entry);
+        putLocal(localKey, entry);
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = toLocalKey(key);
+        ValueWrapper existing = remoteCache.putIfAbsent(key, new CachedValue(value, System.currentTimeMillis(), 0));
+        localCache.invalidate(localKey);
+        if (existing == null) {
+            invalidationPublisher.publishEvict(name, localKey);
+            return null;
+        }
+        return new SimpleValueWrapper(toCachedValue(existing).value());
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = toLocalKey(key);
+        invalidateLoad(localKey);
+        remoteCache.evict(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = toLocalKey(key);
+        invalidateLoad(localKey);
+        boolean evicted = remoteCache.evictIfPresent(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        invalidateAllLoads();
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        invalidateAllLoads();
+        boolean invalidated = remoteCache.invalidate();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return invalidated;
+    }
+
+    void evictLocal(String key) {
+        invalidateLoad(key);
+        localCache.invalidate(key);
+    }
+
+    void clearLocal() {
+        invalidateAllLoads();
+        localCache.invalidateAll();
+    }
+
+    private CachedValue lookup(Object key) {
+        if (!localCacheEnabled.getAsBoolean()) {
+            return toCachedValue(remoteCache.get(key));
+        }
+
+        String localKey = toLocalKey(key);
+        CachedValue local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return local;
+        }
+
+        CachedValue remote = toCachedValue(remoteCache.get(key));
+        if (remote != null) {
+            localCache.put(localKey, remote);
+        }
+        return remote;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        String localKey = toLocalKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = loads.putIfAbsent(localKey, load);
+        if (running == null) {
+            running = load;
+            runLoad(key, localKey, valueLoader, load);
+        }
+
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        String localKey = toLocalKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        if (loads.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+
+        load.whenComplete((value, error) -> {
+            if (error != null) {
+                log.warn("Не удалось обновить кэш {} по ключу {}: {}", name, key, error.getMessage());
+            }
+        });
+        try {
+            refreshExecutor.execute(() -> runLoad(key, localKey, valueLoader, load));
+        } catch (RejectedExecutionException e) {
+            runLoad(key, localKey, valueLoader, load);
+        }
+    }
+
+    private void runLoad(Object key, String localKey, Callable<?> valueLoader, CompletableFuture<Object> load) {
+        long invalidationsBefore = invalidations.get();
+        long started = System.nanoTime();
+        try {
+            Object value = valueLoader.call();
+            CachedValue entry = new CachedValue(value, System.currentTimeMillis(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            // Загруженное значение не меняет данные, поэтому другие узлы не уведомляются
+            if (invalidations.get() == invalidationsBefore) {
+                remoteCache.put(key, entry);
+                putLocal(localKey, entry);
+            }
+            load.complete(value);
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+        } finally {
+            loads.remove(localKey, load);
+        }
+    }
+
+    // Вероятностное досрочное обновление (XFetch): чем дороже вычисление и ближе истечение, тем вероятнее обновить
+    private boolean shouldRefreshEarly(CachedValue entry, long expiresAt, long now) {
+        double beta = refreshPolicy.earlyRefreshBeta();
+        if (beta <= 0 || !entry.hasMetadata()) {
+            return false;
+        }
+        double gap = entry.computeMillis() * beta * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= expiresAt;
+    }
+
+    private long expiresAt(CachedValue entry) {
+        return entry.hasMetadata() ? entry.loadedAt() + refreshPolicy.ttl().toMillis() : Long.MAX_VALUE;
+    }
+
+    private void invalidateLoad(String localKey) {
+        invalidations.incrementAndGet();
+        loads.remove(localKey);
+    }
+
+    private void invalidateAllLoads() {
+        invalidations.incrementAndGet();
+        loads.clear();
+    }
+
+    private void putLocal(String localKey, CachedValue entry) {
+        if (localCacheEnabled.getAsBoolean()) {
+            localCache.put(localKey, entry);
+        }
+    }
+
+    private CachedValue toCachedValue(ValueWrapper wrapper) {
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        return value instanceof CachedValue entry ? entry : CachedValue.legacy(value);
+    }
+
+    // Ключи приводятся к строке так же, как их видит Redis, чтобы сообщения инвалидации совпадали с ключами L1
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,115 @@
+package kg.manurov.tasktracker.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Оборачивает каждый кэш удаленного менеджера в {@link TwoLevelCache}. Операции записи
+ * откладываются до коммита транзакции одновременно для обоих уровней.
+ * Фоновые обновления записей выполняются в собственном пуле потоков менеджера.
+ */
+public class TwoLevelCacheManager implements CacheManager, NearCache, DisposableBean {
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final CacheRefreshPolicy refreshPolicy;
+    private final ExecutorService refreshExecutor;
+    private volatile BooleanSupplier localCacheEnabled = () -> false;
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                long localMaxSize,
+                                Duration localTtl,
+                                CacheRefreshPolicy refreshPolicy,
+                                int refreshThreads) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.refreshPolicy = refreshPolicy;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache decorated = decoratedCaches.get(name);
+        if (decorated != null) {
+            return decorated;
+        }
+
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        TwoLevelCache cache = caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(
+                cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaxSize)
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                remoteCache,
+                invalidationPublisher,
+                () -> localCacheEnabled.getAsBoolean(),
+                refreshPolicy,
+                refreshExecutor
+        ));
+        return decoratedCaches.computeIfAbsent(name, cacheName -> new TransactionAwareCacheDecorator(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void setLocalCacheEnabled(BooleanSupplier localCacheEnabled) {
+        this.localCacheEnabled = localCacheEnabled;
+    }
+
+    @Override
+    public void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    @Override
+    public void clearLocal(String cacheName) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    @Override
+    public void clearAllLocal() {
+        caches.values().forEach(TwoLevelCache::clearLocal);
+    }
+}
@@ -0,0 +1,15 @@
+package kg.manurov.tasktracker.config;
+
+public final class CacheNames {
+    public static final String TASKS = "tasksCache";
+    public static final String TASK = "taskCache";
+    public static final String TASKS_BY_STATUS = "tasksByStatusCache";
+    public static final String TASK_SUMMARIES = "taskSummariesCache";
+    public static final String TASK_SUMMARIES_BY_STATUS = "taskSummariesByStatusCache";
+    public static final String AUTHENTICATION = "authenticationCache";
+
+    public static final String ALL_TASKS_KEY = "all_tasks";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,19 @@
+package kg.manurov.tasktracker.config;
+
+import kg.manurov.tasktracker.generator.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+    @Value("${task.id.node-id:0}")
+    private int nodeId;
+
+    // Генератор ID читает номер узла из настроек Hibernate при первой генерации, а не из окружения Spring
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorPropertiesCustomizer() {
+        return properties -> properties.put(TimeOrderedIdGenerator.NODE_ID_SETTING, nodeId);
+    }
+}
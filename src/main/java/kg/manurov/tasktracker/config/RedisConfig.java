@@ -1,18 +1,66 @@
 package kg.manurov.tasktracker.config;
 
+import kg.manurov.tasktracker.cache.CacheFailureHandler;
+import kg.manurov.tasktracker.cache.CacheInvalidationListener;
+import kg.manurov.tasktracker.cache.CacheInvalidationPublisher;
+import kg.manurov.tasktracker.cache.CacheInvalidationSubscriber;
+import kg.manurov.tasktracker.cache.CacheRefreshPolicy;
+import kg.manurov.tasktracker.cache.CircuitBreaker;
+import kg.manurov.tasktracker.cache.NearCache;
+import kg.manurov.tasktracker.cache.ResilientCacheManager;
+import kg.manurov.tasktracker.cache.TaskDtoRedisSerializer;
+import kg.manurov.tasktracker.cache.TwoLevelCacheManager;
+import io.lettuce.core.ClientOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientOptionsBuilderCustomizer;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
-@EnableCaching
+// Кэш оборачивает транзакцию, чтобы попадание и ожидание чужой загрузки не занимали соединение с БД
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class RedisConfig {
+    @Value("${task.cache.local.max-size:1000}")
+    private long localCacheMaxSize;
+    @Value("${task.cache.local.ttl:60s}")
+    private Duration localCacheTtl;
+    @Value("${task.cache.invalidation-channel:task-tracker:cache-invalidation}")
+    private String invalidationChannel;
+    @Value("${task.cache.resubscribe-interval:5s}")
+    private Duration resubscribeInterval;
+    @Value("${task.cache.compression-threshold:1024}")
+    private int compressionThreshold;
+    @Value("${task.cache.ttl:30m}")
+    private Duration cacheTtl;
+    @Value("${task.cache.stale-while-revalidate:60s}")
+    private Duration staleWhileRevalidate;
+    @Value("${task.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+    @Value("${task.cache.refresh-threads:2}")
+    private int refreshThreads;
+    @Value("${task.cache.circuit-breaker.failure-threshold:5}")
+    private int circuitBreakerFailureThreshold;
+    @Value("${task.cache.circuit-breaker.open-duration:10s}")
+    private Duration circuitBreakerOpenDuration;
+
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
@@ -25,9 +73,87 @@ public class RedisConfig {
     @Bean
     public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
         return builder -> builder
-                .withCacheConfiguration("tasksCache",
-                        RedisCacheConfiguration
-                                .defaultCacheConfig()
-                                .entryTtl(Duration.ofMinutes(30)));
+                .withCacheConfiguration(CacheNames.TASKS, taskCacheConfiguration())
+                .withCacheConfiguration(CacheNames.TASK, taskCacheConfiguration())
+                .withCacheConfiguration(CacheNames.TASKS_BY_STATUS, taskCacheConfiguration())
+                .withCacheConfiguration(CacheNames.TASK_SUMMARIES, taskCacheConfiguration())
+                .withCacheConfiguration(CacheNames.TASK_SUMMARIES_BY_STATUS, taskCacheConfiguration());
+    }
+
+    @Bean
+    public CircuitBreaker redisCircuitBreaker() {
+        return new CircuitBreaker("Redis", circuitBreakerFailureThreshold, circuitBreakerOpenDuration);
+    }
+
+    // Пока соединение с Redis потеряно, команды отклоняются сразу, а не ждут переподключения до таймаута
+    @Bean
+    public LettuceClientOptionsBuilderCustomizer lettuceClientOptionsCustomizer() {
+        return builder -> builder.disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS);
+    }
+
+    @Bean
+    public CachingConfigurer cachingConfigurer() {
+        return new CachingConfigurer() {
+            @Override
+            public CacheErrorHandler errorHandler() {
+                return new CacheFailureHandler();
+            }
+        };
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate,
+                                                                 CircuitBreaker redisCircuitBreaker) {
+        return new CacheInvalidationPublisher(redisTemplate, invalidationChannel, redisCircuitBreaker);
+    }
+
+    // Запись и инвалидация обоих уровней откладываются до коммита транзакции,
+    // чтобы читатели не увидели незафиксированные данные.
+    // Сообщения инвалидации обрабатываются им раньше остальных ближних кэшей
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             RedisCacheConfiguration cacheConfiguration,
+                                             ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+                                             CacheInvalidationPublisher invalidationPublisher,
+                                             CircuitBreaker redisCircuitBreaker) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(new ResilientCacheManager(redisCacheManager, redisCircuitBreaker),
+                invalidationPublisher, localCacheMaxSize, localCacheTtl, refreshPolicy(), refreshThreads);
+    }
+
+    @Bean
+    public CacheInvalidationSubscriber cacheInvalidationSubscriber(RedisConnectionFactory connectionFactory,
+                                                                   List<NearCache> nearCaches,
+                                                                   CacheInvalidationPublisher invalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(nearCaches, invalidationPublisher.getInstanceId()),
+                new ChannelTopic(invalidationChannel)
+        );
+        container.afterPropertiesSet();
+
+        CacheInvalidationSubscriber subscriber =
+                new CacheInvalidationSubscriber(container, nearCaches, resubscribeInterval);
+        nearCaches.forEach(nearCache -> nearCache.setLocalCacheEnabled(subscriber::isListening));
+        return subscriber;
+    }
+
+    private CacheRefreshPolicy refreshPolicy() {
+        return new CacheRefreshPolicy(cacheTtl, staleWhileRevalidate, earlyRefreshBeta);
+    }
+
+    private RedisCacheConfiguration taskCacheConfiguration() {
+        return RedisCacheConfiguration
+                .defaultCacheConfig()
+                .entryTtl(refreshPolicy().storeTtl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new TaskDtoRedisSerializer(compressionThreshold)));
     }
 }
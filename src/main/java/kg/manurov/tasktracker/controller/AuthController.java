@@ -2,13 +2,24 @@ package kg.manurov.tasktracker.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import kg.manurov.tasktracker.domain.dto.LoginDto;
+import kg.manurov.tasktracker.domain.dto.RefreshTokenDto;
 import kg.manurov.tasktracker.domain.dto.RegistrationDto;
+import kg.manurov.tasktracker.domain.dto.TokenResponseDto;
 import kg.manurov.tasktracker.domain.models.User;
+import kg.manurov.tasktracker.security.TokenService;
 import kg.manurov.tasktracker.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,10 +31,12 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
-@Tag(name = "Authentication", description = "API для регистрации нового пользователя")
+@Tag(name = "Authentication", description = "API для регистрации и получения токенов")
 public class AuthController {
 
     private final UserService userService;
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
 
 
     @PostMapping("/register")
@@ -38,4 +51,30 @@ public class AuthController {
 
         return ResponseEntity.ok(HttpStatus.CREATED);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Войти",
+            description = "Обменивает email и пароль на короткоживущий токен доступа и токен обновления")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Токены выданы"),
+            @ApiResponse(responseCode = "401", description = "Неверный email или пароль")
+    })
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponseDto> login(@Valid @RequestBody LoginDto loginDto) {
+        log.info("Вход пользователя: {}", loginDto.getEmail());
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginDto.getEmail(), loginDto.getPassword()));
+
+        return ResponseEntity.ok(tokenService.issue((UserDetails) authentication.getPrincipal()));
+    }
+
+    @Operation(summary = "Обновить токены",
+            description = "Выдает новую пару токенов по действующему токену обновления")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Токены выданы"),
+            @ApiResponse(responseCode = "401", description = "Токен обновления недействителен")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponseDto> refresh(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        return ResponseEntity.ok(tokenService.refresh(refreshTokenDto.getRefreshToken()));
+    }
+}
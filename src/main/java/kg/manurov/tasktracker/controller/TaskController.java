@@ -1,8 +1,30 @@
 package kg.manurov.tasktracker.controller;
 
+import kg.manurov.tasktracker.cache.TaskETagRegistry;
+import kg.manurov.tasktracker.domain.dto.BulkCreateResultDto;
+import kg.manurov.tasktracker.domain.dto.BulkStatusChangeDto;
+import kg.manurov.tasktracker.domain.dto.BulkStatusChangeResultDto;
 import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.dto.TaskETag;
+import kg.manurov.tasktracker.domain.dto.TaskFields;
+import kg.manurov.tasktracker.domain.dto.TaskPageDto;
+import kg.manurov.tasktracker.domain.dto.TaskPatchDto;
+import kg.manurov.tasktracker.domain.dto.TaskSearchCriteria;
+import kg.manurov.tasktracker.domain.dto.TaskSuggestionDto;
+import kg.manurov.tasktracker.domain.dto.TaskTextSearchPageDto;
+import kg.manurov.tasktracker.domain.enums.ExportFormat;
+import kg.manurov.tasktracker.domain.enums.TaskField;
+import kg.manurov.tasktracker.domain.enums.TaskSortKey;
 import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.exception.PreconditionRequiredException;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import kg.manurov.tasktracker.service.IdempotencyService;
+import kg.manurov.tasktracker.service.TaskArchiveService;
+import kg.manurov.tasktracker.service.TaskCreateBatcher;
+import kg.manurov.tasktracker.service.TaskExportService;
+import kg.manurov.tasktracker.service.TaskImportService;
 import kg.manurov.tasktracker.service.TaskService;
+import kg.manurov.tasktracker.service.TaskStatusCounters;
 import kg.manurov.tasktracker.service.TaskStatusManager;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,12 +38,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -33,9 +64,18 @@ public class TaskController {
 
     private final TaskService taskService;
     private final TaskStatusManager statusManager;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskArchiveService taskArchiveService;
+    private final IdempotencyService idempotencyService;
+    private final TaskCreateBatcher taskCreateBatcher;
+    private final TaskStatusCounters statusCounters;
+    private final TaskETagRegistry taskETags;
+    private final TaskTextIndex taskTextIndex;
 
     @Operation(summary = "Создать новую задачу",
-            description = "Создает новую задачу со статусом PENDING")
+            description = "Создает новую задачу со статусом PENDING. Повтор запроса с тем же Idempotency-Key " +
+                    "возвращает исходный ответ и не создает задачу повторно")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
@@ -45,24 +85,83 @@ public class TaskController {
                             schema = @Schema(implementation = TaskDto.class)
                     )
             ),
+            @ApiResponse(responseCode = "400", description = "Ключ идемпотентности использован с другим телом запроса"),
+            @ApiResponse(responseCode = "409", description = "Запрос с этим ключом идемпотентности еще выполняется"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @PostMapping
     public ResponseEntity<TaskDto> createTask(
+            @Parameter(description = "Ключ идемпотентности, уникальный для каждой новой задачи")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Данные для создания задачи",
                     required = true)
             @Valid @RequestBody TaskDto taskDTO) {
         log.info("Получен запрос на создание задачи: {}", taskDTO.getTitle());
 
-        TaskDto createdTask = taskService.createTask(taskDTO);
+        return idempotencyService.execute("create-task", idempotencyKey, taskDTO, TaskDto.class,
+                () -> new ResponseEntity<>(taskCreateBatcher.create(taskDTO), HttpStatus.CREATED));
+    }
+
+    @Operation(summary = "Создать задачи пакетом",
+            description = "Создает задачи из JSON-массива со статусом PENDING. Все элементы проверяются за один проход, " +
+                    "валидные вставляются пакетно, для каждого элемента возвращается результат")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Запрос обработан, результат по каждому элементу в теле ответа",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkCreateResultDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Превышен размер пакета или некорректное тело запроса"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkCreateResultDto> createTasks(
+            @Parameter(description = "Ключ идемпотентности пакета")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Массив задач для создания",
+                    required = true)
+            @RequestBody List<TaskDto> tasks) {
+        log.info("Получен запрос на массовое создание {} задач", tasks.size());
+        return idempotencyService.execute("create-tasks", idempotencyKey, tasks, BulkCreateResultDto.class,
+                () -> ResponseEntity.ok(taskImportService.createTasks(tasks)));
+    }
 
-        return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
+    @Operation(summary = "Создать задачи из NDJSON",
+            description = "Потоково читает задачи из тела application/x-ndjson (одна задача на строку) " +
+                    "и создает их так же, как пакетный JSON-запрос")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Запрос обработан, результат по каждой строке в теле ответа",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkCreateResultDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Превышен размер пакета"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkCreateResultDto> importTasks(
+            @Parameter(description = "Ключ идемпотентности загрузки")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            InputStream body) {
+        log.info("Получен запрос на массовое создание задач из NDJSON");
+        IdempotencyService.DigestedBody digestedBody = new IdempotencyService.DigestedBody(body);
+        return idempotencyService.execute("import-tasks", idempotencyKey, digestedBody, BulkCreateResultDto.class,
+                () -> ResponseEntity.ok(taskImportService.importNdjson(digestedBody.stream())));
     }
 
     @Operation(
             summary = "Получить все задачи",
-            description = "Возвращает список всех задач, отсортированных по дате создания (новые сначала)"
+            description = "Возвращает список всех задач, отсортированных по дате создания (новые сначала). " +
+                    "Параметр fields ограничивает набор полей; без description описания не читаются из базы. " +
+                    "Если If-None-Match совпадает с текущим ETag списка, возвращается 304 без тела"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -73,17 +172,221 @@ public class TaskController {
                             schema = @Schema(implementation = TaskDto.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Список не изменился"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле в fields"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
+    public ResponseEntity<List<?>> getAllTasks(
+            @Parameter(description = "Поля задачи через запятую; без параметра возвращаются все", example = "id,title,status")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен запрос на получение всех задач");
-        return ResponseEntity.ok(taskService.getAllTasks());
+        TaskFields taskFields = TaskFields.parse(fields);
+        // ETag берется до чтения: изменение во время чтения сменит его, и следующий запрос получит тело
+        String eTag = taskFields.eTag(taskETags.allTasksETag());
+        if (TaskETag.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        List<TaskDto> tasks = taskFields.includes(TaskField.DESCRIPTION)
+                ? taskService.getAllTasks()
+                : taskService.getAllTaskSummaries();
+        return ResponseEntity.ok().eTag(eTag).body(taskFields.select(tasks));
+    }
+
+    @Operation(
+            summary = "Получить страницу задач",
+            description = "Возвращает задачи постранично (курсорная пагинация) в порядке от новых к старым. " +
+                    "Для получения следующей страницы передайте nextCursor из предыдущего ответа. " +
+                    "Параметр fields ограничивает набор полей; без description описания не читаются из базы"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница задач успешно получена",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TaskPageDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор, размер страницы или поле в fields"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<TaskPageDto> getTasksPage(
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы", example = "20")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Поля задачи через запятую; без параметра возвращаются все", example = "id,title,status")
+            @RequestParam(required = false) String fields) {
+        log.info("Получен запрос на получение страницы задач");
+        return ResponseEntity.ok(taskService.getTasksPage(cursor, size, TaskFields.parse(fields)));
+    }
+
+    @Operation(
+            summary = "Поиск задач",
+            description = "Возвращает задачи, подходящие под все переданные условия: статусы, периоды создания " +
+                    "и обновления (начало включительно, конец не включительно) и префикс названия с учетом регистра. " +
+                    "Архивные задачи не ищутся"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Найденные задачи",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TaskDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Неверный статус, ключ сортировки, период или поле в fields"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<?>> searchTasks(
+            @Parameter(description = "Статусы задач, можно передать несколько", example = "PENDING")
+            @RequestParam(required = false) List<String> status,
+            @Parameter(description = "Создана не раньше", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Создана раньше", example = "2025-02-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Обновлена не раньше")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(description = "Обновлена раньше")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @Parameter(description = "Начало названия задачи", example = "Написать")
+            @RequestParam(required = false) String titlePrefix,
+            @Parameter(description = "Ключ сортировки", example = "created_at",
+                    schema = @Schema(allowableValues = {"created_at", "updated_at", "title"}))
+            @RequestParam(defaultValue = "created_at") String sort,
+            @Parameter(description = "Направление сортировки", example = "desc",
+                    schema = @Schema(allowableValues = {"asc", "desc"}))
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Максимальное количество задач", example = "20")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Поля задачи через запятую; без параметра возвращаются все", example = "id,title,status")
+            @RequestParam(required = false) String fields) {
+        log.info("Получен запрос на поиск задач");
+        TaskFields taskFields = TaskFields.parse(fields);
+
+        Set<TaskStatus> statuses = EnumSet.noneOf(TaskStatus.class);
+        if (status != null) {
+            for (String value : status) {
+                statuses.add(TaskStatus.fromString(value)
+                        .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + value)));
+            }
+        }
+        TaskSortKey sortKey = TaskSortKey.fromString(sort)
+                .orElseThrow(() -> new IllegalArgumentException("Неверный ключ сортировки: " + sort));
+        boolean ascending = switch (direction.strip().toLowerCase()) {
+            case "asc" -> true;
+            case "desc" -> false;
+            default -> throw new IllegalArgumentException("Неверное направление сортировки: " + direction);
+        };
+
+        TaskSearchCriteria criteria = new TaskSearchCriteria(statuses, createdFrom, createdTo,
+                updatedFrom, updatedTo, titlePrefix, sortKey, ascending);
+        return ResponseEntity.ok(taskFields.select(taskService.searchTasks(criteria, size)));
+    }
+
+    @Operation(
+            summary = "Полнотекстовый поиск задач",
+            description = "Ищет задачи, в названии или описании которых встречаются все слова запроса с учетом " +
+                    "словоформ (русский и английский). Результаты упорядочены по релевантности, совпадения " +
+                    "в названии важнее совпадений в описании. Архивные задачи не ищутся"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница найденных задач",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TaskTextSearchPageDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Запрос без слов, неверный номер или размер страницы"),
+            @ApiResponse(responseCode = "409", description = "Поисковый индекс еще строится после запуска"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/search/text")
+    public ResponseEntity<TaskTextSearchPageDto> searchTasksByText(
+            @Parameter(description = "Поисковый запрос", required = true, example = "тесты api")
+            @RequestParam String q,
+            @Parameter(description = "Номер страницы, начиная с нуля", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Размер страницы", example = "20")
+            @RequestParam(required = false) Integer size) {
+        log.info("Получен запрос на полнотекстовый поиск задач");
+        return ResponseEntity.ok(taskService.searchTasksByText(q, page, size));
+    }
+
+    @Operation(
+            summary = "Подсказки по названию задачи",
+            description = "Возвращает задачи, название которых или одно из слов названия начинается с введенного " +
+                    "текста, без учета регистра. Сначала идут совпадения с началом названия. Ответ строится " +
+                    "из индекса в памяти без обращения к базе; пока индекс строится после запуска, список пуст"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Список подсказок",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            [{"id": 1, "title": "Написать тесты"}]
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Неверное количество подсказок"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TaskSuggestionDto>> suggestTasks(
+            @Parameter(description = "Начало названия или слова в названии", required = true, example = "напи")
+            @RequestParam String prefix,
+            @Parameter(description = "Количество подсказок, не более 50", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Получен запрос подсказок по префиксу '{}'", prefix);
+        return ResponseEntity.ok(taskTextIndex.suggest(prefix, limit));
+    }
+
+    @Operation(
+            summary = "Выгрузить все задачи",
+            description = "Потоково выгружает все задачи в формате NDJSON или CSV, не загружая таблицу в память"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка начата"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @Parameter(description = "Формат выгрузки", example = "ndjson",
+                    schema = @Schema(allowableValues = {"ndjson", "csv"}))
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Получен запрос на выгрузку задач в формате {}", format);
+
+        ExportFormat exportFormat = ExportFormat.fromString(format)
+                .orElseThrow(() -> new IllegalArgumentException("Неверный формат выгрузки: " + format));
+
+        StreamingResponseBody body = outputStream -> taskExportService.exportTasks(exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @Operation(
             summary = "Получить задачу по ID",
-            description = "Возвращает задачу с указанным идентификатором"
+            description = "Возвращает задачу с указанным идентификатором. С includeArchived=true " +
+                    "задача, не найденная среди текущих, ищется в архиве. Параметр fields ограничивает набор полей. " +
+                    "Если If-None-Match совпадает с версией задачи, возвращается 304 без тела"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
@@ -91,19 +394,42 @@ public class TaskController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = TaskDto.class))),
+            @ApiResponse(responseCode = "304", description = "Задача не изменилась"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле в fields"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(
+    public ResponseEntity<?> getTaskById(
             @Parameter(description = "ID задачи", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Искать также среди архивных задач", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Поля задачи через запятую; без параметра возвращаются все", example = "id,title,status")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен запрос на получение задачи с ID: {}", id);
-        return ResponseEntity.ok(taskService.getTaskById(id));
+        TaskFields taskFields = TaskFields.parse(fields);
+        String knownETag = taskFields.eTag(taskETags.taskETag(id));
+        if (TaskETag.matches(ifNoneMatch, knownETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownETag).build();
+        }
+
+        long stamp = taskETags.stamp();
+        TaskDto task = taskArchiveService.getTaskById(id, includeArchived);
+        taskETags.recordTask(task.getId(), task.getVersion(), stamp);
+        String eTag = taskFields.eTag(TaskETag.of(task.getVersion()));
+        if (TaskETag.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(taskFields.select(task));
     }
 
     @Operation(
             summary = "Обновить задачу",
-            description = "Обновляет существующую задачу. Можно обновить название, описание и статус"
+            description = "Обновляет существующую задачу. Можно обновить название, описание и статус. " +
+                    "Если передан If-Match, задача обновляется только при совпадении версии"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -116,12 +442,16 @@ public class TaskController {
             ),
             @ApiResponse(responseCode = "400", description = "Неверные данные запроса"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "409", description = "Задачу одновременно изменил другой запрос"),
+            @ApiResponse(responseCode = "412", description = "Версия из If-Match устарела"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @PutMapping("/{id}")
     public ResponseEntity<TaskDto> updateTask(
             @Parameter(description = "ID задачи", required = true, example = "1")
             @PathVariable Long id,
+            @Parameter(description = "ETag задачи, полученный при чтении", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Обновленные данные задачи",
                     required = true,
@@ -132,11 +462,74 @@ public class TaskController {
             )
             @Valid @RequestBody TaskDto taskDTO) {
         log.info("Получен запрос на обновление задачи с ID: {}", id);
-        TaskDto updatedTask = taskService.updateTask(id, taskDTO);
-        return ResponseEntity.ok(updatedTask);
+        TaskDto updatedTask = taskService.updateTask(id, taskDTO, TaskETag.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(TaskETag.of(updatedTask.getVersion()))
+                .body(updatedTask);
+    }
+
+    @Operation(
+            summary = "Частично обновить задачу",
+            description = "Изменяет только переданные название и описание одним UPDATE с проверкой версии, " +
+                    "не загружая задачу. Заголовок If-Match с ETag задачи обязателен"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Задача обновлена, новая версия в заголовке ETag"),
+            @ApiResponse(responseCode = "400", description = "Неверные данные запроса"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "412", description = "Версия из If-Match устарела"),
+            @ApiResponse(responseCode = "428", description = "Не передан заголовок If-Match"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTask(
+            @Parameter(description = "ID задачи", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ETag задачи, полученный при чтении", required = true, example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TaskPatchDto patch) {
+        log.info("Получен запрос на частичное обновление задачи с ID: {}", id);
+
+        Long expectedVersion = TaskETag.parseIfMatch(ifMatch);
+        if (expectedVersion == null) {
+            throw new PreconditionRequiredException("Для частичного обновления нужен заголовок If-Match с версией задачи");
+        }
+
+        long version = taskService.patchTask(id, patch, expectedVersion);
+        return ResponseEntity.noContent()
+                .eTag(TaskETag.of(version))
+                .build();
     }
 
 
+    @Operation(
+            summary = "Изменить статус нескольких задач",
+            description = "Проверяет переход для каждой задачи и применяет все допустимые изменения одной операцией. " +
+                    "Для задач, которые изменить нельзя, возвращается причина отказа"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Запрос обработан, результат по каждой задаче в теле ответа",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkStatusChangeResultDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Неверный статус или превышен размер пакета"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<BulkStatusChangeResultDto> changeTaskStatuses(
+            @Valid @RequestBody BulkStatusChangeDto request) {
+        log.info("Получен запрос на массовое изменение статуса {} задач", request.getIds().size());
+
+        TaskStatus newStatus = TaskStatus.fromString(request.getStatus())
+                .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + request.getStatus()));
+
+        return ResponseEntity.ok(taskService.changeTaskStatuses(request.getIds(), newStatus));
+    }
+
     @Operation(
             summary = "Изменить статус задачи",
             description = "Изменяет статус задачи с использованием системы переходов состояний"
@@ -155,15 +548,19 @@ public class TaskController {
             @Parameter(description = "ID задачи", required = true, example = "1")
             @PathVariable Long id,
             @Parameter(description = "Статус на которую хотите изменить", required = true, example = "PENDING | IN_PROGRESS | COMPLETED | CANCELLED")
-            @RequestParam String statusRequest) {
+            @RequestParam String statusRequest,
+            @Parameter(description = "ETag задачи, полученный при чтении", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Получен запрос на изменение статуса задачи {}", id);
 
         TaskStatus newStatus = TaskStatus.fromString(statusRequest)
                 .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + statusRequest));
 
-        TaskDto updatedTask = taskService.changeTaskStatus(id, newStatus);
+        TaskDto updatedTask = taskService.changeTaskStatus(id, newStatus, TaskETag.parseIfMatch(ifMatch));
 
-        return ResponseEntity.ok(updatedTask);
+        return ResponseEntity.ok()
+                .eTag(TaskETag.of(updatedTask.getVersion()))
+                .body(updatedTask);
     }
 
     @Operation(
@@ -188,7 +585,10 @@ public class TaskController {
 
     @Operation(
             summary = "Получить задачи по статусу",
-            description = "Возвращает список задач с указанным статусом"
+            description = "Возвращает список задач с указанным статусом. Для финальных статусов " +
+                    "с includeArchived=true к текущим задачам добавляются архивные. Параметр fields ограничивает " +
+                    "набор полей; без description описания не читаются из базы. Если If-None-Match совпадает " +
+                    "с текущим ETag списка, возвращается 304 без тела"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -199,26 +599,39 @@ public class TaskController {
                             schema = @Schema(implementation = TaskDto.class)
                     )
             ),
-            @ApiResponse(responseCode = "400", description = "Неверный статус"),
+            @ApiResponse(responseCode = "304", description = "Список не изменился"),
+            @ApiResponse(responseCode = "400", description = "Неверный статус или поле в fields"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskDto>> getTasksByStatus(
+    public ResponseEntity<List<?>> getTasksByStatus(
             @Parameter(
                     description = "Статус задачи",
                     required = true,
                     example = "PENDING",
                     schema = @Schema(allowableValues = {"PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"})
             )
-            @PathVariable String status) {
+            @PathVariable String status,
+            @Parameter(description = "Добавить к результату архивные задачи с этим статусом", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Поля задачи через запятую; без параметра возвращаются все", example = "id,title,status")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен запрос на получение задач со статусом: {}", status);
 
         TaskStatus taskStatus = TaskStatus.fromString(status)
                 .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + status));
+        TaskFields taskFields = TaskFields.parse(fields);
+
+        String eTag = taskFields.eTag(taskETags.statusETag(taskStatus, includeArchived));
+        if (TaskETag.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
-        List<TaskDto> tasks = taskService.getTasksByStatus(taskStatus);
+        List<TaskDto> tasks = taskArchiveService.getTasksByStatus(taskStatus, includeArchived,
+                taskFields.includes(TaskField.DESCRIPTION));
 
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok().eTag(eTag).body(taskFields.select(tasks));
     }
 
     @Operation(
@@ -253,6 +666,32 @@ public class TaskController {
     }
 
 
+    @Operation(
+            summary = "Получить количество задач по статусам",
+            description = "Возвращает количество задач в каждом статусе, включая архивные. Значения берутся " +
+                    "из счетчиков в памяти и периодически сверяются с базой"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Количество задач по статусам",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {"PENDING": 12, "IN_PROGRESS": 5, "COMPLETED": 40, "CANCELLED": 3}
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @GetMapping("/counts")
+    public ResponseEntity<Map<TaskStatus, Long>> getStatusCounts() {
+        log.info("Получен запрос на получение количества задач по статусам");
+        return ResponseEntity.ok(statusCounters.getCounts());
+    }
+
     @Operation(
             summary = "Получить информацию о статусах",
             description = "Возвращает информацию о всех доступных статусах и возможных переходах"
@@ -0,0 +1,63 @@
+package kg.manurov.tasktracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import kg.manurov.tasktracker.domain.dto.PasswordChangeDto;
+import kg.manurov.tasktracker.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API для управления учетными записями")
+@SecurityRequirement(name = "basicAuth")
+public class UserController {
+
+    private final UserService userService;
+
+    @Operation(summary = "Сменить пароль", description = "Меняет пароль текущего пользователя")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Пароль изменен"),
+            @ApiResponse(responseCode = "400", description = "Текущий пароль указан неверно"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    @PutMapping("/me/password")
+    public ResponseEntity<Void> changePassword(Principal principal,
+                                               @Valid @RequestBody PasswordChangeDto passwordChangeDto) {
+        log.info("Получен запрос на смену пароля пользователя {}", principal.getName());
+        userService.changePassword(principal.getName(),
+                passwordChangeDto.getCurrentPassword(), passwordChangeDto.getNewPassword());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Включить или отключить пользователя", description = "Доступно только администратору")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Состояние пользователя изменено"),
+            @ApiResponse(responseCode = "400", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    @PatchMapping("/{id}/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> setEnabled(
+            @Parameter(description = "ID пользователя", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Новое состояние", example = "false")
+            @RequestParam boolean enabled) {
+        log.info("Получен запрос на изменение состояния пользователя {}: {}", id, enabled);
+        userService.setEnabled(id, enabled);
+        return ResponseEntity.noContent().build();
+    }
+}
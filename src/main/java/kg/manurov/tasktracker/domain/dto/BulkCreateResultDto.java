@@ -0,0 +1,31 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BulkCreateResultDto {
+    @Schema(description = "Количество созданных задач")
+    int created;
+    @Schema(description = "Количество отклоненных элементов")
+    int rejected;
+    @Schema(description = "Результат по каждому элементу запроса в исходном порядке")
+    List<BulkItemResultDto> items;
+
+    // Создатель нужен, чтобы повтор запроса по ключу идемпотентности мог восстановить сохраненный ответ;
+    // имена параметров указаны явно и не зависят от флага -parameters
+    @JsonCreator
+    public BulkCreateResultDto(@JsonProperty("created") int created,
+                               @JsonProperty("rejected") int rejected,
+                               @JsonProperty("items") List<BulkItemResultDto> items) {
+        this.created = created;
+        this.rejected = rejected;
+        this.items = items;
+    }
+}
@@ -0,0 +1,43 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BulkItemResultDto {
+    @Schema(description = "Порядковый номер элемента в запросе, начиная с нуля")
+    int index;
+    @Schema(description = "ID созданной задачи, null если элемент отклонен")
+    Long id;
+    @Schema(description = "Создана ли задача")
+    boolean created;
+    @Schema(description = "Ошибки валидации элемента по полям")
+    Map<String, List<String>> errors;
+
+    // Имена параметров указаны явно: повтор по ключу идемпотентности не должен зависеть от флага -parameters
+    @JsonCreator
+    public BulkItemResultDto(@JsonProperty("index") int index,
+                             @JsonProperty("id") Long id,
+                             @JsonProperty("created") boolean created,
+                             @JsonProperty("errors") Map<String, List<String>> errors) {
+        this.index = index;
+        this.id = id;
+        this.created = created;
+        this.errors = errors;
+    }
+
+    public static BulkItemResultDto created(int index, Long id) {
+        return new BulkItemResultDto(index, id, true, Map.of());
+    }
+
+    public static BulkItemResultDto rejected(int index, Map<String, List<String>> errors) {
+        return new BulkItemResultDto(index, null, false, errors);
+    }
+}
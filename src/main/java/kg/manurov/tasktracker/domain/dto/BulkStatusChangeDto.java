@@ -0,0 +1,24 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusChangeDto {
+    @NotEmpty(message = "Список ID задач не может быть пустым")
+    @Schema(description = "ID задач, статус которых нужно изменить", example = "[1, 2, 3]")
+    private List<@NotNull(message = "ID задачи не может быть пустым") Long> ids;
+
+    @NotBlank(message = "Статус не может быть пустым")
+    @Schema(description = "Новый статус задач", example = "COMPLETED")
+    private String status;
+}
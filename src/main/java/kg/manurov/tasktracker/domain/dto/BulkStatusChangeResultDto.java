@@ -0,0 +1,20 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BulkStatusChangeResultDto {
+    @Schema(description = "ID задач, статус которых изменен")
+    List<Long> updated;
+    @Schema(description = "ID задач, которые уже находились в запрошенном статусе")
+    List<Long> unchanged;
+    @Schema(description = "Причина отказа по ID задачи")
+    Map<Long, String> failed;
+}
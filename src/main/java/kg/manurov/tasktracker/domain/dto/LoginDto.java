@@ -0,0 +1,17 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginDto {
+    @NotBlank(message = "Email не может быть пустым")
+    private String email;
+
+    @NotBlank(message = "Пароль не может быть пустым")
+    private String password;
+}
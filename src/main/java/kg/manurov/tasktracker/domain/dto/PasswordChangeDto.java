@@ -0,0 +1,22 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordChangeDto {
+    @NotBlank(message = "Текущий пароль не может быть пустым")
+    @Schema(description = "Текущий пароль")
+    private String currentPassword;
+
+    @NotBlank(message = "Пароль не может быть пустым")
+    @Size(min = 3, message = "Пароль должен содержать минимум 3 символов")
+    @Schema(description = "Новый пароль")
+    private String newPassword;
+}
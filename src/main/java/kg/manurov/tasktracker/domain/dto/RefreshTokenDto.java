@@ -0,0 +1,14 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDto {
+    @NotBlank(message = "Токен обновления не может быть пустым")
+    private String refreshToken;
+}
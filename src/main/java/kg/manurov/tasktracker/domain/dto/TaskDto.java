@@ -41,4 +41,12 @@ public class TaskDto implements Serializable {
     LocalDateTime createdAt;
     @Schema(description = "Дата обновления задачи")
     LocalDateTime updatedAt;
+    @Schema(description = "Версия задачи, совпадает со значением ETag")
+    Long version;
+
+    // Проекция списков без описания: колонка description не читается из базы
+    public TaskDto(Long id, String title, String status, LocalDateTime createdAt, LocalDateTime updatedAt,
+                   Long version) {
+        this(id, title, null, status, createdAt, updatedAt, version);
+    }
 }
@@ -0,0 +1,51 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import kg.manurov.tasktracker.exception.PreconditionFailedException;
+
+/**
+ * Сильный ETag задачи на основе ее версии: {@code "3"}. Значение If-Match {@code *} означает любую версию.
+ */
+public final class TaskETag {
+    private static final String ANY = "*";
+
+    private TaskETag() {
+    }
+
+    public static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    // If-None-Match сравнивается слабо (без учета W/) и может содержать несколько значений через запятую
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (ANY.equals(value) || eTag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Возвращает ожидаемую версию или null, если заголовок не передан или допускает любую версию
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new PreconditionFailedException("Некорректное значение If-Match: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Некорректное значение If-Match: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import kg.manurov.tasktracker.domain.enums.TaskField;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Набор полей задачи из параметра {@code fields} (sparse fieldset), например {@code fields=id,title,status}.
+ * Без параметра отдаются все поля. Описание — единственное поле, которое может быть большим,
+ * поэтому списки без него читаются проекцией, не затрагивающей колонку description.
+ */
+public final class TaskFields {
+    public static final TaskFields ALL = new TaskFields(EnumSet.allOf(TaskField.class));
+
+    private final Set<TaskField> fields;
+
+    private TaskFields(Set<TaskField> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    public static TaskFields parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+
+        EnumSet<TaskField> fields = EnumSet.noneOf(TaskField.class);
+        for (String name : value.split(",")) {
+            fields.add(TaskField.fromString(name)
+                    .orElseThrow(() -> new IllegalArgumentException("Неизвестное поле задачи: " + name.strip())));
+        }
+        return fields.size() == TaskField.values().length ? ALL : new TaskFields(fields);
+    }
+
+    public boolean includes(TaskField field) {
+        return fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    // Представления с разным набором полей не должны совпадать по ETag: "3" превращается в "3;id.title"
+    public String eTag(String eTag) {
+        if (eTag == null || isAll()) {
+            return eTag;
+        }
+        String suffix = fields.stream().map(TaskField::getProperty).collect(Collectors.joining("."));
+        return eTag.substring(0, eTag.length() - 1) + ";" + suffix + "\"";
+    }
+
+    public Object select(TaskDto task) {
+        return isAll() ? task : new SparseTask(task, fields);
+    }
+
+    public List<?> select(List<TaskDto> tasks) {
+        if (isAll()) {
+            return tasks;
+        }
+        return tasks.stream().map(task -> new SparseTask(task, fields)).toList();
+    }
+
+    /**
+     * Пишет только выбранные поля задачи, не копируя ее. Значения сериализуются тем же ObjectMapper,
+     * что и {@link TaskDto}, поэтому формат дат совпадает с полным представлением.
+     */
+    @RequiredArgsConstructor
+    private static final class SparseTask extends JsonSerializable.Base {
+        private final TaskDto task;
+        private final Set<TaskField> fields;
+
+        @Override
+        public void serialize(JsonGenerator json, SerializerProvider provider) throws IOException {
+            json.writeStartObject();
+            for (TaskField field : fields) {
+                provider.defaultSerializeField(field.getProperty(), valueOf(field), json);
+            }
+            json.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator json, SerializerProvider provider, TypeSerializer typeSerializer)
+                throws IOException {
+            serialize(json, provider);
+        }
+
+        private Object valueOf(TaskField field) {
+            return switch (field) {
+                case ID -> task.getId();
+                case TITLE -> task.getTitle();
+                case DESCRIPTION -> task.getDescription();
+                case STATUS -> task.getStatus();
+                case CREATED_AT -> task.getCreatedAt();
+                case UPDATED_AT -> task.getUpdatedAt();
+                case VERSION -> task.getVersion();
+            };
+        }
+    }
+}
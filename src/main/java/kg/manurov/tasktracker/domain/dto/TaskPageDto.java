@@ -0,0 +1,21 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TaskPageDto {
+    @ArraySchema(schema = @Schema(implementation = TaskDto.class),
+            arraySchema = @Schema(description = "Задачи текущей страницы, только запрошенные поля"))
+    List<?> content;
+    @Schema(description = "Курсор для запроса следующей страницы, null если страница последняя")
+    String nextCursor;
+    @Schema(description = "Есть ли следующая страница")
+    boolean hasNext;
+}
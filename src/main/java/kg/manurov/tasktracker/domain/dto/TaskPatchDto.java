@@ -0,0 +1,30 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchDto {
+    @Size(max = 255, message = "Название задачи не может превышать 255 символов")
+    @Pattern(regexp = ".*\\S.*", message = "Название задачи не может быть пустым")
+    @Schema(description = "Новая тема задачи, если не передана — не меняется")
+    private String title;
+
+    @Size(max = 1000, message = "Описание не может превышать 1000 символов")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Описание задачи не может быть пустым")
+    @Schema(description = "Новое описание задачи, если не передано — не меняется")
+    private String description;
+
+    @AssertTrue(message = "Нужно передать хотя бы одно поле для изменения")
+    @Schema(hidden = true)
+    public boolean isNotEmpty() {
+        return title != null || description != null;
+    }
+}
@@ -0,0 +1,37 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import kg.manurov.tasktracker.domain.enums.TaskSortKey;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Условия поиска задач. Незаданные условия не ограничивают выборку; границы периодов
+ * включают начало и не включают конец. Префикс названия сравнивается с учетом регистра,
+ * чтобы поиск мог идти по индексу idx_tasks_title.
+ */
+public record TaskSearchCriteria(
+        Set<TaskStatus> statuses,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        LocalDateTime updatedFrom,
+        LocalDateTime updatedTo,
+        String titlePrefix,
+        TaskSortKey sort,
+        boolean ascending
+) {
+    public TaskSearchCriteria {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        checkRange(createdFrom, createdTo, "создания");
+        checkRange(updatedFrom, updatedTo, "обновления");
+        titlePrefix = titlePrefix == null || titlePrefix.isBlank() ? null : titlePrefix;
+        sort = sort == null ? TaskSortKey.CREATED_AT : sort;
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to, String name) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода " + name + " должно быть раньше его конца");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TaskSuggestionDto {
+    @Schema(description = "ID задачи")
+    Long id;
+    @Schema(description = "Название задачи")
+    String title;
+}
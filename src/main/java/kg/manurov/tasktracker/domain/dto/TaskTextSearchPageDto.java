@@ -0,0 +1,21 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TaskTextSearchPageDto {
+    @Schema(description = "Задачи текущей страницы в порядке убывания релевантности")
+    List<TaskDto> content;
+    @Schema(description = "Общее количество найденных задач")
+    int total;
+    @Schema(description = "Номер страницы, начиная с нуля")
+    int page;
+    @Schema(description = "Есть ли следующая страница")
+    boolean hasNext;
+}
@@ -0,0 +1,19 @@
+package kg.manurov.tasktracker.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenResponseDto {
+    @Schema(description = "Токен доступа для заголовка Authorization: Bearer")
+    String accessToken;
+    @Schema(description = "Токен обновления для получения новой пары токенов")
+    String refreshToken;
+    @Schema(description = "Тип токена", example = "Bearer")
+    String tokenType;
+    @Schema(description = "Время жизни токена доступа в секундах", example = "900")
+    long expiresIn;
+}
@@ -0,0 +1,27 @@
+package kg.manurov.tasktracker.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@AllArgsConstructor
+@Getter
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static Optional<ExportFormat> fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+
+        return Arrays.stream(ExportFormat.values())
+                .filter(format -> format.name().equalsIgnoreCase(value.strip()))
+                .findFirst();
+    }
+}
@@ -0,0 +1,31 @@
+package kg.manurov.tasktracker.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@AllArgsConstructor
+@Getter
+public enum TaskField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private final String property;
+
+    public static Optional<TaskField> fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+
+        return Arrays.stream(TaskField.values())
+                .filter(field -> field.property.equalsIgnoreCase(value.strip()))
+                .findFirst();
+    }
+}
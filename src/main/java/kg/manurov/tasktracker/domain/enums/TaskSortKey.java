@@ -0,0 +1,27 @@
+package kg.manurov.tasktracker.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@AllArgsConstructor
+@Getter
+public enum TaskSortKey {
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    TITLE("title");
+
+    private final String attribute;
+
+    public static Optional<TaskSortKey> fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+
+        return Arrays.stream(TaskSortKey.values())
+                .filter(key -> key.name().equalsIgnoreCase(value.strip()))
+                .findFirst();
+    }
+}
@@ -17,38 +17,59 @@ public enum TaskStatus {
 
     private final String description;
 
+    private static final TaskStatus[] VALUES = values();
+    // Готовые Optional, чтобы поиск статуса по строке не создавал объектов
+    private static final Optional<TaskStatus>[] LOOKUP_RESULTS = createLookupResults();
+    private static final String AVAILABLE_STATUSES_DESCRIPTION = "Указан неверный статус. Доступные статусы: " +
+            Arrays.stream(VALUES).map(TaskStatus::name).collect(Collectors.joining(", "));
+    private static final String ALL_STATUS_DESCRIPTIONS =
+            Arrays.stream(VALUES).map(TaskStatus::getDescription).collect(Collectors.joining(", "));
+
     public static boolean exists(String value) {
-        if (value == null || value.isBlank()) {
-            return false;
-        }
-        return Arrays.stream(TaskStatus.values())
-                .anyMatch(status -> status.name().equalsIgnoreCase(value.strip()));
+        return fromString(value).isPresent();
     }
 
     public static Optional<TaskStatus> fromString(String value) {
-        if (value == null || value.isBlank()) {
+        if (value == null) {
             return Optional.empty();
         }
 
-        return Arrays.stream(TaskStatus.values())
-                .filter(status -> status.name().equalsIgnoreCase(value.strip()))
-                .findFirst();
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+
+        int length = end - start;
+        for (TaskStatus status : VALUES) {
+            String name = status.name();
+            if (name.length() == length && value.regionMatches(true, start, name, 0, length)) {
+                return LOOKUP_RESULTS[status.ordinal()];
+            }
+        }
+        return Optional.empty();
     }
 
 
     public static String getAvailableStatusesDescription() {
-        String statuses = Arrays.stream(TaskStatus.values())
-                .map(TaskStatus::name)
-                .collect(Collectors.joining(", "));
-
-        return "Указан неверный статус. Доступные статусы: " + statuses;
+        return AVAILABLE_STATUSES_DESCRIPTION;
     }
 
 
     public static String getAllStatusDescriptions() {
-        return Arrays.stream(TaskStatus.values())
-                .map(TaskStatus::getDescription)
-                .collect(Collectors.joining(", "));
+        return ALL_STATUS_DESCRIPTIONS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<TaskStatus>[] createLookupResults() {
+        Optional<TaskStatus>[] results = new Optional[VALUES.length];
+        for (TaskStatus status : VALUES) {
+            results[status.ordinal()] = Optional.of(status);
+        }
+        return results;
     }
 
 
@@ -56,4 +77,4 @@ public enum TaskStatus {
     public String toString() {
         return name();
     }
-}
\ No newline at end of file
+}
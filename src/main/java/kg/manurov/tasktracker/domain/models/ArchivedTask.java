@@ -0,0 +1,41 @@
+package kg.manurov.tasktracker.domain.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Задача в финальном статусе, перенесенная из {@code tasks} в архив. Архив только читается:
+ * записи в него переносятся запросом INSERT ... SELECT и больше не изменяются.
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@Table(name = "tasks_archive")
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
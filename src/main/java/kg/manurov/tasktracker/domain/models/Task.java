@@ -1,6 +1,7 @@
 package kg.manurov.tasktracker.domain.models;
 
 import jakarta.persistence.*;
+import kg.manurov.tasktracker.generator.TimeOrderedId;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     private String title;
@@ -29,6 +30,9 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
 
     @PrePersist
     protected void onCreate() {
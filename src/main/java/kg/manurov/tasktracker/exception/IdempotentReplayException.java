@@ -0,0 +1,19 @@
+package kg.manurov.tasktracker.exception;
+
+import lombok.*;
+
+/**
+ * Сохраненный ответ по ключу идемпотентности не удалось восстановить. Операция уже выполнена,
+ * поэтому повторить ее нельзя: это ошибка сервера, а не конфликт запроса клиента.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+@Setter
+public class IdempotentReplayException extends RuntimeException {
+    private final String msg;
+
+    public IdempotentReplayException(String msg, Throwable cause) {
+        super(msg, cause);
+        this.msg = msg;
+    }
+}
@@ -0,0 +1,11 @@
+package kg.manurov.tasktracker.exception;
+
+import lombok.*;
+
+@EqualsAndHashCode(callSuper = true)
+@Getter
+@Setter
+@AllArgsConstructor
+public class InvalidStatusTransitionException extends RuntimeException {
+    private final String msg;
+}
@@ -0,0 +1,67 @@
+package kg.manurov.tasktracker.generator;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Генератор идентификаторов, упорядоченных по времени, в духе Snowflake:
+ * 41 бит миллисекунд от {@link #EPOCH}, 5 бит номера узла и 7 бит счетчика внутри миллисекунды.
+ * Узлы с разными номерами выдают непересекающиеся ID без обращения к базе и друг к другу.
+ * <p>
+ * ID занимает 53 бита и не превышает {@link #MAX_SAFE_ID}: в JSON он передается числом, и браузерные
+ * клиенты читают его как double без потери точности. Отметки времени хватает до 2093 года.
+ * <p>
+ * Состояние (миллисекунда и счетчик) хранится в одном {@link AtomicLong} и обновляется через CAS,
+ * поэтому генератор не использует блокировок. Если часы отстали или счетчик миллисекунды исчерпан,
+ * генератор продолжает от последней выданной миллисекунды, а не ждет часов: ID остаются уникальными
+ * и возрастающими, а отметка времени в них может немного опережать реальную.
+ */
+public class SnowflakeIdGenerator {
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    // Наибольшее целое, которое JavaScript представляет точно (Number.MAX_SAFE_INTEGER)
+    public static final long MAX_SAFE_ID = (1L << 53) - 1;
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // Старшие биты — миллисекунда от эпохи, младшие SEQUENCE_BITS — счетчик внутри нее
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Номер узла должен быть от 0 до " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH.toEpochMilli();
+        while (true) {
+            long current = state.get();
+            long next = Math.max(current + 1, now << SEQUENCE_BITS);
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
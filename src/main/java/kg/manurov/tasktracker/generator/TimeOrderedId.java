@@ -0,0 +1,18 @@
+package kg.manurov.tasktracker.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Идентификатор сущности присваивается в приложении {@link TimeOrderedIdGenerator} до INSERT,
+ * поэтому вставки можно отправлять пакетами.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,48 @@
+package kg.manurov.tasktracker.generator;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Генератор Hibernate для {@link TimeOrderedId}. Номер узла берется из настройки Hibernate
+ * {@value #NODE_ID_SETTING}, по умолчанию 0.
+ * <p>
+ * Под Spring Boot Hibernate получает генератор из контейнера бинов Spring, который умеет вызывать только
+ * конструктор без аргументов. Поэтому настройка читается при первой генерации из реестра сервисов фабрики сессий.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+    public static final String NODE_ID_SETTING = "task.id.node-id";
+
+    private volatile SnowflakeIdGenerator generator;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        SnowflakeIdGenerator current = generator;
+        if (current == null) {
+            current = initialize(session);
+        }
+        return current.nextId();
+    }
+
+    private synchronized SnowflakeIdGenerator initialize(SharedSessionContractImplementor session) {
+        if (generator == null) {
+            int nodeId = session.getFactory().getServiceRegistry()
+                    .requireService(ConfigurationService.class)
+                    .getSetting(NODE_ID_SETTING, StandardConverters.INTEGER, 0);
+            generator = new SnowflakeIdGenerator(nodeId);
+        }
+        return generator;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -1,11 +1,18 @@
 package kg.manurov.tasktracker.handler;
 
 import jakarta.mail.MessagingException;
+import kg.manurov.tasktracker.exception.IdempotentReplayException;
+import kg.manurov.tasktracker.exception.InvalidStatusTransitionException;
+import kg.manurov.tasktracker.exception.PreconditionFailedException;
+import kg.manurov.tasktracker.exception.PreconditionRequiredException;
 import kg.manurov.tasktracker.exception.TaskNotFoundException;
 import kg.manurov.tasktracker.service.ErrorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -24,6 +31,39 @@ public class GlobalExceptionHandler {
                 .body(ex.getMsg());
     }
 
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<ErrorResponseBody> handle(InvalidStatusTransitionException ex){
+        return new ResponseEntity<>(errorService.makeResponse("status", ex.getMsg()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handle(PreconditionFailedException ex){
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ex.getMsg());
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<String> handle(PreconditionRequiredException ex){
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_REQUIRED)
+                .body(ex.getMsg());
+    }
+
+    @ExceptionHandler(IdempotentReplayException.class)
+    public ResponseEntity<String> handle(IdempotentReplayException ex){
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ex.getMsg());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handle(ObjectOptimisticLockingFailureException ex){
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("Задача была изменена другим запросом, повторите операцию");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handle(RuntimeException ex){
         return ResponseEntity
@@ -60,6 +100,20 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handle(AuthenticationException ex){
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<String> handle(AccessDeniedException ex){
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseBody> handle(MethodArgumentNotValidException ex){
         return new ResponseEntity<>(errorService.makeResponse(ex.getBindingResult()), HttpStatus.BAD_REQUEST);
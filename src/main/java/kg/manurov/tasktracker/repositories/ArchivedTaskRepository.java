@@ -0,0 +1,55 @@
+package kg.manurov.tasktracker.repositories;
+
+import jakarta.persistence.QueryHint;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.models.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("""
+            select new kg.manurov.tasktracker.domain.dto.TaskDto(
+                t.id, t.title, t.description, t.status, t.createdAt, t.updatedAt, t.version)
+            from ArchivedTask t
+            where t.status = :status
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskDto> findDtosByStatus(@Param("status") String status);
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("""
+            select new kg.manurov.tasktracker.domain.dto.TaskDto(
+                t.id, t.title, t.status, t.createdAt, t.updatedAt, t.version)
+            from ArchivedTask t
+            where t.status = :status
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskDto> findSummariesByStatus(@Param("status") String status);
+
+    @Query("select t.status as status, count(t) as count from ArchivedTask t group by t.status")
+    List<TaskRepository.StatusCountView> countByStatus();
+
+    // Строки копируются в базе без загрузки сущностей; статус проверяется повторно на случай параллельного изменения
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into tasks_archive (id, title, description, status, created_at, updated_at, version, archived_at)
+            select id, title, description, status, created_at, updated_at, version, :archivedAt
+            from tasks
+            where id in :ids and status in :statuses
+            """)
+    int copyFromTasks(@Param("ids") Collection<Long> ids,
+                      @Param("statuses") Collection<String> statuses,
+                      @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,14 +1,137 @@
 package kg.manurov.tasktracker.repositories;
 
+import jakarta.persistence.QueryHint;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
 import kg.manurov.tasktracker.domain.models.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByStatus(String status);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    /**
+     * Чтения для списков и экспорта возвращают {@link TaskDto} конструкторным выражением: Hibernate не создает
+     * управляемые сущности и снимки для dirty checking, а ручной режим сброса избавляет запрос
+     * от автоматического flush контекста персистентности.
+     */
+    String SELECT_TASK_DTO = "select new kg.manurov.tasktracker.domain.dto.TaskDto("
+            + "t.id, t.title, t.description, t.status, t.createdAt, t.updatedAt, t.version) from Task t ";
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_DTO + "where t.status = :status order by t.createdAt desc, t.id desc")
+    List<TaskDto> findDtosByStatus(@Param("status") String status);
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_DTO + "order by t.createdAt desc, t.id desc")
+    List<TaskDto> findAllDtos();
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_DTO + "order by t.createdAt desc, t.id desc")
+    List<TaskDto> findDtoPage(Limit limit);
+
+    // Условие created_at <= :createdAt дублирует OR-ветку, чтобы H2 выполнял range scan по idx_tasks_created_at
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_DTO + """
+            where t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskDto> findDtoPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Списки без описания: колонка TEXT не читается с диска и не попадает в кэш и ответ
+    String SELECT_TASK_SUMMARY = "select new kg.manurov.tasktracker.domain.dto.TaskDto("
+            + "t.id, t.title, t.status, t.createdAt, t.updatedAt, t.version) from Task t ";
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_SUMMARY + "where t.status = :status order by t.createdAt desc, t.id desc")
+    List<TaskDto> findSummariesByStatus(@Param("status") String status);
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_SUMMARY + "order by t.createdAt desc, t.id desc")
+    List<TaskDto> findAllSummaries();
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_SUMMARY + "order by t.createdAt desc, t.id desc")
+    List<TaskDto> findSummaryPage(Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(SELECT_TASK_SUMMARY + """
+            where t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskDto> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                       Limit limit);
+
+    @Query("select t.status as status, count(t) as count from Task t group by t.status")
+    List<StatusCountView> countByStatus();
+
+    @Query("select t.id as id, t.status as status from Task t where t.id in :ids")
+    List<StatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Статус проверяется повторно в WHERE, чтобы не перезаписать задачу, статус которой успели изменить
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.status = :status, t.updatedAt = :updatedAt, t.version = t.version + 1
+            where t.id in :ids and t.status in :fromStatuses
+            """)
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("fromStatuses") Collection<String> fromStatuses,
+                     @Param("status") String status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("""
+            select t.id from Task t
+            where t.status in :statuses and t.updatedAt < :updatedBefore
+            order by t.updatedAt
+            """)
+    List<Long> findIdsToArchive(@Param("statuses") Collection<String> statuses,
+                                @Param("updatedBefore") LocalDateTime updatedBefore,
+                                Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.id in :ids and t.status in :statuses")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<String> statuses);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Task t order by t.createdAt desc, t.id desc")
+    Stream<Task> streamAllBy();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_TASK_DTO + "order by t.createdAt desc, t.id desc")
+    Stream<TaskDto> streamAllDtos();
+
+    interface StatusView {
+        Long getId();
+
+        String getStatus();
+    }
+
+    interface StatusCountView {
+        String getStatus();
 
-    List<Task> findAllByOrderByCreatedAtDesc();
+        long getCount();
+    }
 }
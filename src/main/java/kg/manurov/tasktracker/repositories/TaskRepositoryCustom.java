@@ -0,0 +1,24 @@
+package kg.manurov.tasktracker.repositories;
+
+import kg.manurov.tasktracker.domain.dto.TaskSearchCriteria;
+import kg.manurov.tasktracker.domain.models.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Обновляет только переданные (не null) поля задачи одним UPDATE без загрузки сущности.
+     * Запись изменяется, только если ее версия совпадает с ожидаемой; версия увеличивается на единицу.
+     *
+     * @return количество обновленных строк: 0, если задача не найдена или версия уже изменилась
+     */
+    int patch(Long id, long expectedVersion, String title, String description, LocalDateTime updatedAt);
+
+    /**
+     * Ищет задачи по заданным условиям. Запрос собирается только из переданных условий, чтобы
+     * H2 мог выбрать подходящий составной индекс; сортировка дополняется id для стабильного порядка.
+     */
+    List<Task> search(TaskSearchCriteria criteria, int limit);
+}
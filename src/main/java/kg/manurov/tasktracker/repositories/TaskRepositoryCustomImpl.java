@@ -0,0 +1,89 @@
+package kg.manurov.tasktracker.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import kg.manurov.tasktracker.domain.dto.TaskSearchCriteria;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, long expectedVersion, String title, String description, LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+
+        if (title != null) {
+            update.set(task.<String>get("title"), title);
+        }
+        if (description != null) {
+            update.set(task.<String>get("description"), description);
+        }
+        update.set(task.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(
+                cb.equal(task.get("id"), id),
+                cb.equal(task.get("version"), expectedVersion)
+        );
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Task> search(TaskSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (!criteria.statuses().isEmpty()) {
+            predicates.add(task.get("status").in(criteria.statuses().stream().map(TaskStatus::name).toList()));
+        }
+        addRange(cb, predicates, task.get("createdAt"), criteria.createdFrom(), criteria.createdTo());
+        addRange(cb, predicates, task.get("updatedAt"), criteria.updatedFrom(), criteria.updatedTo());
+        if (criteria.titlePrefix() != null) {
+            predicates.add(cb.like(task.get("title"), escapeLike(criteria.titlePrefix()) + "%", LIKE_ESCAPE));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        Path<Object> sortPath = task.get(criteria.sort().getAttribute());
+        query.orderBy(criteria.ascending()
+                ? List.of(cb.asc(sortPath), cb.asc(task.get("id")))
+                : List.of(cb.desc(sortPath), cb.desc(task.get("id"))));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static void addRange(CriteriaBuilder cb, List<Predicate> predicates, Path<LocalDateTime> path,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,98 @@
+package kg.manurov.tasktracker.search;
+
+/**
+ * Облегченный стеммер английского языка: шаги 1a и 1b алгоритма Портера (множественное число,
+ * окончания -ed и -ing). Этого достаточно, чтобы «tests», «tested» и «testing» давали одну основу.
+ */
+final class EnglishStemmer {
+
+    private EnglishStemmer() {
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+
+        String s = word;
+        if (s.endsWith("sses")) {
+            s = s.substring(0, s.length() - 2);
+        } else if (s.endsWith("ies")) {
+            s = s.substring(0, s.length() - 2);
+        } else if (s.endsWith("s") && !s.endsWith("ss") && !s.endsWith("us") && !s.endsWith("is")) {
+            s = s.substring(0, s.length() - 1);
+        }
+
+        if (s.endsWith("eed")) {
+            if (measure(s, s.length() - 3) > 0) {
+                s = s.substring(0, s.length() - 1);
+            }
+        } else if (s.endsWith("ed") && hasVowel(s, s.length() - 2)) {
+            s = restore(s.substring(0, s.length() - 2));
+        } else if (s.endsWith("ing") && hasVowel(s, s.length() - 3)) {
+            s = restore(s.substring(0, s.length() - 3));
+        }
+
+        if (s.endsWith("y") && hasVowel(s, s.length() - 1)) {
+            s = s.substring(0, s.length() - 1) + "i";
+        }
+        return s;
+    }
+
+    // После удаления -ed/-ing возвращается e или убирается удвоенная согласная: created → create, running → run
+    private static String restore(String s) {
+        if (s.endsWith("at") || s.endsWith("bl") || s.endsWith("iz")) {
+            return s + "e";
+        }
+        int length = s.length();
+        if (length >= 2 && s.charAt(length - 1) == s.charAt(length - 2) && isConsonant(s, length - 1)) {
+            char last = s.charAt(length - 1);
+            return last == 'l' || last == 's' || last == 'z' ? s : s.substring(0, length - 1);
+        }
+        if (measure(s, length) == 1 && endsWithCvc(s)) {
+            return s + "e";
+        }
+        return s;
+    }
+
+    private static boolean endsWithCvc(String s) {
+        int length = s.length();
+        if (length < 3) {
+            return false;
+        }
+        char last = s.charAt(length - 1);
+        return isConsonant(s, length - 3) && !isConsonant(s, length - 2) && isConsonant(s, length - 1)
+                && last != 'w' && last != 'x' && last != 'y';
+    }
+
+    // Количество последовательностей «гласные + согласные» в первых end символах
+    private static int measure(String s, int end) {
+        int count = 0;
+        boolean previousVowel = false;
+        for (int i = 0; i < end; i++) {
+            boolean vowel = !isConsonant(s, i);
+            if (!vowel && previousVowel) {
+                count++;
+            }
+            previousVowel = vowel;
+        }
+        return count;
+    }
+
+    private static boolean hasVowel(String s, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(s, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConsonant(String s, int i) {
+        return switch (s.charAt(i)) {
+            case 'a', 'e', 'i', 'o', 'u' -> false;
+            case 'y' -> i == 0 || !isConsonant(s, i - 1);
+            default -> true;
+        };
+    }
+}
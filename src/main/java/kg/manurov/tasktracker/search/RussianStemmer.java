@@ -0,0 +1,155 @@
+package kg.manurov.tasktracker.search;
+
+/**
+ * Стеммер русского языка по алгоритму Snowball (Портера). Окончания ищутся в области RV,
+ * словообразовательный суффикс -ость — в области R2. Слово должно быть в нижнем регистре, ё заменена на е.
+ */
+final class RussianStemmer {
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] ADJECTIVE = {
+            "ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой",
+            "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"
+    };
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] VERB_1 = {
+            "ла", "на", "ете", "йте", "ли", "й", "л", "ем", "н", "ло", "но", "ет", "ют", "ны", "ть", "ешь", "нно"
+    };
+    private static final String[] VERB_2 = {
+            "ила", "ыла", "ена", "ейте", "уйте", "ите", "или", "ыли", "ей", "уй", "ил", "ыл", "им", "ым", "ен",
+            "ило", "ыло", "ено", "ят", "ует", "уют", "ит", "ыт", "ены", "ить", "ыть", "ишь", "ую", "ю"
+    };
+    private static final String[] NOUN = {
+            "а", "ев", "ов", "ие", "ье", "е", "иями", "ями", "ами", "еи", "ии", "и", "ией", "ей", "ой", "ий", "й",
+            "иям", "ям", "ием", "ем", "ам", "ом", "о", "у", "ах", "иях", "ях", "ы", "ь", "ию", "ью", "ю", "ия", "ья", "я"
+    };
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private RussianStemmer() {
+    }
+
+    static String stem(String word) {
+        int rv = rvStart(word);
+        if (rv >= word.length()) {
+            return word;
+        }
+        String prefix = word.substring(0, rv);
+        String s = word.substring(rv);
+
+        String removed = removeGroups(s, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2);
+        if (removed != null) {
+            s = removed;
+        } else {
+            removed = remove(s, REFLEXIVE);
+            if (removed != null) {
+                s = removed;
+            }
+            removed = removeAdjectival(s);
+            if (removed == null) {
+                removed = removeGroups(s, VERB_1, VERB_2);
+            }
+            if (removed == null) {
+                removed = remove(s, NOUN);
+            }
+            if (removed != null) {
+                s = removed;
+            }
+        }
+
+        if (s.endsWith("и")) {
+            s = s.substring(0, s.length() - 1);
+        }
+
+        String full = prefix + s;
+        int r2 = regionStart(full, regionStart(full, 0));
+        for (String suffix : DERIVATIONAL) {
+            if (full.endsWith(suffix) && full.length() - suffix.length() >= r2) {
+                s = s.substring(0, s.length() - suffix.length());
+                break;
+            }
+        }
+
+        if (s.endsWith("нн")) {
+            s = s.substring(0, s.length() - 1);
+        } else {
+            removed = remove(s, SUPERLATIVE);
+            if (removed != null) {
+                s = removed.endsWith("нн") ? removed.substring(0, removed.length() - 1) : removed;
+            } else if (s.endsWith("ь")) {
+                s = s.substring(0, s.length() - 1);
+            }
+        }
+        return prefix + s;
+    }
+
+    // RV: часть слова после первой гласной
+    private static int rvStart(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    // R1 (и R2 при from = R1): часть слова после первой согласной, следующей за гласной
+    private static int regionStart(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+
+    private static String removeAdjectival(String s) {
+        String withoutAdjective = remove(s, ADJECTIVE);
+        if (withoutAdjective == null) {
+            return null;
+        }
+        String withoutParticiple = removeGroups(withoutAdjective, PARTICIPLE_1, PARTICIPLE_2);
+        return withoutParticiple != null ? withoutParticiple : withoutAdjective;
+    }
+
+    // Окончания первой группы удаляются, только если перед ними стоит а или я
+    private static String removeGroups(String s, String[] afterAOrYa, String[] anywhere) {
+        String best = null;
+        int bestLength = 0;
+        for (String suffix : afterAOrYa) {
+            int start = s.length() - suffix.length();
+            if (suffix.length() > bestLength && start > 0 && s.endsWith(suffix)
+                    && (s.charAt(start - 1) == 'а' || s.charAt(start - 1) == 'я')) {
+                best = s.substring(0, start);
+                bestLength = suffix.length();
+            }
+        }
+        for (String suffix : anywhere) {
+            if (suffix.length() > bestLength && s.endsWith(suffix)) {
+                best = s.substring(0, s.length() - suffix.length());
+                bestLength = suffix.length();
+            }
+        }
+        return best;
+    }
+
+    private static String remove(String s, String[] suffixes) {
+        String best = null;
+        int bestLength = 0;
+        for (String suffix : suffixes) {
+            if (suffix.length() > bestLength && s.endsWith(suffix)) {
+                best = s.substring(0, s.length() - suffix.length());
+                bestLength = suffix.length();
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,431 @@
+package kg.manurov.tasktracker.search;
+
+import jakarta.persistence.EntityManager;
+import kg.manurov.tasktracker.cache.NearCache;
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.TaskSuggestionDto;
+import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс по названию и описанию задач в памяти процесса. Запрос ищет задачи,
+ * содержащие все его термы, и ранжирует их по BM25; совпадение в названии весит больше, чем в описании.
+ * <p>
+ * Индекс строится из базы при старте и периодически перестраивается. Изменения на этом узле
+ * применяются после коммита транзакции, изменения отдельных задач на других узлах — по сообщениям
+ * инвалидации кэша задач. Массовое создание на других узлах попадает в индекс при очередной перестройке.
+ * Перечитанная из базы задача не заменяет в индексе более новую версию.
+ * <p>
+ * Вместе с термами поддерживается {@link TitlePrefixIndex} для подсказок по началу названия.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskTextIndex implements NearCache, DisposableBean {
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REFRESH_BATCH_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-text-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TitlePrefixIndex titles = new TitlePrefixIndex();
+    private Index index = new Index();
+    // Задачи, измененные во время перестройки: после подмены индекса они перечитываются из базы
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return идентификаторы задач на запрошенной странице в порядке убывания релевантности
+     * и общее количество найденных задач
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Запрос не содержит слов для поиска");
+        }
+
+        lock.readLock().lock();
+        try {
+            return index.search(terms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подсказки по началу названия читаются из неизменяемого снимка без блокировок и обращения к базе.
+     */
+    public List<TaskSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Количество подсказок должно быть больше нуля");
+        }
+        return titles.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    public void indexed(Task task) {
+        indexed(List.of(task));
+    }
+
+    // Текст задач копируется сразу: сущности могут измениться или быть отсоединены до коммита
+    public void indexed(Collection<Task> tasks) {
+        List<Entry> entries = tasks.stream()
+                .map(task -> new Entry(task.getId(), task.getVersion(), task.getTitle(), task.getDescription()))
+                .toList();
+        afterCommit(() -> apply(entries, List.of()));
+    }
+
+    // Задача изменена без загрузки сущности, поэтому ее текст перечитывается из базы
+    public void changed(Long id) {
+        afterCommit(() -> scheduleRefresh(List.of(id)));
+    }
+
+    public void removed(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        afterCommit(() -> apply(List.of(), copy));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${task.search.rebuild-interval:10m}",
+            initialDelayString = "${task.search.rebuild-interval:10m}")
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            worker.execute(this::rebuild);
+        }
+    }
+
+    @Override
+    public void evictLocal(String cacheName, String key) {
+        if (CacheNames.TASK.equals(cacheName)) {
+            scheduleRefresh(List.of(Long.valueOf(key)));
+        }
+    }
+
+    @Override
+    public void clearLocal(String cacheName) {
+        if (CacheNames.TASK.equals(cacheName)) {
+            scheduleRebuild();
+        }
+    }
+
+    @Override
+    public void clearAllLocal() {
+        scheduleRebuild();
+    }
+
+    // Индекс продолжает работать без подписки: пропущенные изменения исправит перестройка после ее восстановления
+    @Override
+    public void setLocalCacheEnabled(BooleanSupplier localCacheEnabled) {
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+
+    void rebuild() {
+        rebuildScheduled.set(false);
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index();
+        List<Entry> entries = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Task> tasks = taskRepository.streamAllBy()) {
+                    Iterator<Task> iterator = tasks.iterator();
+                    while (iterator.hasNext()) {
+                        Task task = iterator.next();
+                        fresh.put(new Entry(task.getId(), task.getVersion(), task.getTitle(), task.getDescription()));
+                        // Для подсказок нужно только название, описание не удерживается до конца перестройки
+                        entries.add(new Entry(task.getId(), task.getVersion(), task.getTitle(), null));
+                        entityManager.detach(task);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Не удалось построить полнотекстовый индекс задач: {}", e.getMessage(), e);
+            return;
+        }
+        TitlePrefixIndex.Snapshot freshTitles = TitlePrefixIndex.snapshotOf(entries);
+
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            titles.replace(freshTitles);
+            changedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Полнотекстовый индекс построен: {} задач, {} термов", fresh.documents.size(), fresh.postings.size());
+        refresh(changed);
+    }
+
+    private void scheduleRefresh(Collection<Long> ids) {
+        pendingRefresh.addAll(ids);
+        if (refreshScheduled.compareAndSet(false, true)) {
+            worker.execute(this::drainRefresh);
+        }
+    }
+
+    private void drainRefresh() {
+        refreshScheduled.set(false);
+        List<Long> batch = new ArrayList<>(REFRESH_BATCH_SIZE);
+        Iterator<Long> iterator = pendingRefresh.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == REFRESH_BATCH_SIZE || !iterator.hasNext()) {
+                refresh(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            List<Entry> entries = new ArrayList<>(ids.size());
+            for (Task task : taskRepository.findAllById(ids)) {
+                entries.add(new Entry(task.getId(), task.getVersion(), task.getTitle(), task.getDescription()));
+            }
+            Set<Long> missing = new LinkedHashSet<>(ids);
+            entries.forEach(entry -> missing.remove(entry.id()));
+            apply(entries, missing);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обновить полнотекстовый индекс для {} задач, они будут исправлены при перестройке: {}",
+                    ids.size(), e.getMessage());
+        }
+    }
+
+    private void apply(Collection<Entry> entries, Collection<Long> removedIds) {
+        lock.writeLock().lock();
+        try {
+            // Снимок подсказок пересобирается, только если изменились названия
+            List<Entry> renamed = new ArrayList<>();
+            List<Long> removedTitles = new ArrayList<>();
+            for (Entry entry : entries) {
+                String previousTitle = index.title(entry.id());
+                if (index.put(entry) && !Objects.equals(previousTitle, entry.title())) {
+                    renamed.add(entry);
+                }
+            }
+            for (Long id : removedIds) {
+                if (index.remove(id)) {
+                    removedTitles.add(id);
+                }
+            }
+            titles.update(renamed, removedTitles);
+            if (changedDuringRebuild != null) {
+                entries.forEach(entry -> changedDuringRebuild.add(entry.id()));
+                changedDuringRebuild.addAll(removedIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    public record Hits(List<Long> ids, int total) {
+    }
+
+    record Entry(Long id, Long version, String title, String description) {
+    }
+
+    private record Document(long version, String title, String[] terms, int length) {
+    }
+
+    private record ScoredId(long id, double score) {
+    }
+
+    /**
+     * Словарь термов со списками задач и частотой терма в каждой. Не потокобезопасен,
+     * доступ синхронизируется блокировкой {@link TaskTextIndex}.
+     */
+    private static final class Index {
+        private static final Comparator<ScoredId> BY_RELEVANCE = Comparator.comparingDouble(ScoredId::score)
+                .thenComparingLong(ScoredId::id);
+
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        String title(Long id) {
+            Document document = documents.get(id);
+            return document != null ? document.title() : null;
+        }
+
+        boolean put(Entry entry) {
+            long version = entry.version() != null ? entry.version() : 0L;
+            Document existing = documents.get(entry.id());
+            if (existing != null) {
+                if (existing.version() > version) {
+                    return false;
+                }
+                remove(entry.id());
+            }
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String term : TextAnalyzer.analyze(entry.title())) {
+                frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+                length += TITLE_WEIGHT;
+            }
+            for (String term : TextAnalyzer.analyze(entry.description())) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(entry.id(), frequency));
+            documents.put(entry.id(),
+                    new Document(version, entry.title(), frequencies.keySet().toArray(String[]::new), length));
+            totalLength += length;
+            return true;
+        }
+
+        boolean remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return false;
+            }
+            for (String term : document.terms()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            totalLength -= document.length();
+            return true;
+        }
+
+        Hits search(List<String> terms, int offset, int limit) {
+            List<Map<Long, Integer>> termPostings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    return new Hits(List.of(), 0);
+                }
+                termPostings.add(posting);
+            }
+            // Кандидаты берутся из самого короткого списка, остальные только проверяются
+            termPostings.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = documents.size();
+            double averageLength = (double) totalLength / documentCount;
+            double[] idf = new double[termPostings.size()];
+            for (int i = 0; i < idf.length; i++) {
+                int df = termPostings.get(i).size();
+                idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+
+            int keep = offset + limit;
+            PriorityQueue<ScoredId> top = new PriorityQueue<>(BY_RELEVANCE);
+            int total = 0;
+            candidates:
+            for (Long id : termPostings.get(0).keySet()) {
+                double normalizer = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                double score = 0;
+                for (int i = 0; i < termPostings.size(); i++) {
+                    Integer frequency = termPostings.get(i).get(id);
+                    if (frequency == null) {
+                        continue candidates;
+                    }
+                    score += idf[i] * frequency * (K1 + 1) / (frequency + normalizer);
+                }
+                total++;
+                top.add(new ScoredId(id, score));
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+
+            List<ScoredId> ranked = new ArrayList<>(top);
+            ranked.sort(BY_RELEVANCE.reversed());
+            List<Long> ids = ranked.stream()
+                    .skip(offset)
+                    .map(ScoredId::id)
+                    .toList();
+            return new Hits(ids, total);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package kg.manurov.tasktracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбивает текст на термы для полнотекстового поиска: слова приводятся к нижнему регистру,
+ * стоп-слова отбрасываются, кириллические слова проходят русский стеммер, латинские — английский.
+ * Один и тот же анализатор применяется к задачам и к запросу, поэтому их термы сравнимы.
+ */
+public final class TextAnalyzer {
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "не", "на", "с", "со", "по", "к", "ко", "о", "об", "от", "до", "из", "за", "для",
+            "но", "а", "или", "же", "ли", "бы", "то", "что", "как", "это", "при", "у",
+            "a", "an", "and", "or", "the", "of", "to", "in", "on", "for", "with", "is", "are", "be", "by", "at", "it"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        StringBuilder token = new StringBuilder();
+        boolean cyrillic = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                if (c == 'ё') {
+                    c = 'е';
+                }
+                cyrillic |= Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC;
+                token.append(c);
+                continue;
+            }
+            if (!token.isEmpty()) {
+                addTerm(terms, token.toString(), cyrillic);
+                token.setLength(0);
+                cyrillic = false;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String word, boolean cyrillic) {
+        if (word.length() < MIN_TOKEN_LENGTH || word.length() > MAX_TOKEN_LENGTH || STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(cyrillic ? RussianStemmer.stem(word) : EnglishStemmer.stem(word));
+    }
+}
@@ -0,0 +1,155 @@
+package kg.manurov.tasktracker.search;
+
+import kg.manurov.tasktracker.domain.dto.TaskSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Подсказки по началу названия задачи. Названия хранятся в отсортированных массивах: один по названию
+ * целиком, второй по каждому слову названия, поэтому «тест» находит и «Тесты API», и «Написать тесты».
+ * Поиск — бинарный поиск и проход по диапазону совпадений без блокировок.
+ * <p>
+ * Массивы не изменяются: каждое обновление строит новый снимок слиянием старого с изменениями
+ * и публикует его одной volatile-записью. Обновления вызываются под блокировкой {@link TaskTextIndex}.
+ */
+final class TitlePrefixIndex {
+    private static final Comparator<Keyed> ORDER = Comparator.comparing(Keyed::key)
+            .thenComparing(keyed -> keyed.suggestion().getId());
+
+    private volatile Snapshot snapshot = new Snapshot(Column.EMPTY, Column.EMPTY);
+
+    /**
+     * Сначала возвращаются задачи, название которых начинается с префикса, затем задачи,
+     * в названии которых с префикса начинается другое слово; внутри групп — по алфавиту.
+     */
+    List<TaskSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix).stripLeading();
+        Map<Long, TaskSuggestionDto> found = new LinkedHashMap<>();
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        current.titles().collect(key, limit, found);
+        current.words().collect(key, limit, found);
+        return List.copyOf(found.values());
+    }
+
+    // Снимок строится отдельно от публикации, чтобы сортировка при перестройке не выполнялась под блокировкой
+    static Snapshot snapshotOf(Collection<TaskTextIndex.Entry> entries) {
+        List<Keyed> titles = new ArrayList<>(entries.size());
+        List<Keyed> words = new ArrayList<>(entries.size() * 2);
+        for (TaskTextIndex.Entry entry : entries) {
+            addKeys(entry, titles, words);
+        }
+        return new Snapshot(Column.of(titles), Column.of(words));
+    }
+
+    void replace(Snapshot replacement) {
+        snapshot = replacement;
+    }
+
+    void update(Collection<TaskTextIndex.Entry> changed, Collection<Long> removedIds) {
+        if (changed.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+        Set<Long> dropped = new HashSet<>(removedIds);
+        List<Keyed> titles = new ArrayList<>(changed.size());
+        List<Keyed> words = new ArrayList<>(changed.size() * 2);
+        for (TaskTextIndex.Entry entry : changed) {
+            dropped.add(entry.id());
+            addKeys(entry, titles, words);
+        }
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.titles().merge(dropped, titles), current.words().merge(dropped, words));
+    }
+
+    private static void addKeys(TaskTextIndex.Entry entry, List<Keyed> titles, List<Keyed> words) {
+        if (entry.title() == null || entry.title().isBlank()) {
+            return;
+        }
+        String key = normalize(entry.title()).strip();
+        TaskSuggestionDto suggestion = new TaskSuggestionDto(entry.id(), entry.title());
+        titles.add(new Keyed(key, suggestion));
+        for (int i = 1; i < key.length(); i++) {
+            if (Character.isLetterOrDigit(key.charAt(i)) && !Character.isLetterOrDigit(key.charAt(i - 1))) {
+                words.add(new Keyed(key.substring(i), suggestion));
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private record Keyed(String key, TaskSuggestionDto suggestion) {
+    }
+
+    record Snapshot(Column titles, Column words) {
+    }
+
+    record Column(String[] keys, TaskSuggestionDto[] values) {
+        static final Column EMPTY = new Column(new String[0], new TaskSuggestionDto[0]);
+
+        static Column of(List<Keyed> entries) {
+            entries.sort(ORDER);
+            String[] keys = new String[entries.size()];
+            TaskSuggestionDto[] values = new TaskSuggestionDto[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = entries.get(i).key();
+                values[i] = entries.get(i).suggestion();
+            }
+            return new Column(keys, values);
+        }
+
+        // Слияние за один проход: записи удаленных и измененных задач пропускаются, новые вставляются по порядку
+        Column merge(Set<Long> dropped, List<Keyed> added) {
+            added.sort(ORDER);
+            String[] mergedKeys = new String[keys.length + added.size()];
+            TaskSuggestionDto[] mergedValues = new TaskSuggestionDto[mergedKeys.length];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (dropped.contains(values[i].getId())) {
+                    continue;
+                }
+                while (next < added.size() && compare(added.get(next), keys[i], values[i]) < 0) {
+                    mergedKeys[size] = added.get(next).key();
+                    mergedValues[size++] = added.get(next++).suggestion();
+                }
+                mergedKeys[size] = keys[i];
+                mergedValues[size++] = values[i];
+            }
+            for (; next < added.size(); next++) {
+                mergedKeys[size] = added.get(next).key();
+                mergedValues[size++] = added.get(next).suggestion();
+            }
+            return new Column(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedValues, size));
+        }
+
+        private static int compare(Keyed keyed, String key, TaskSuggestionDto value) {
+            int byKey = keyed.key().compareTo(key);
+            return byKey != 0 ? byKey : Long.compare(keyed.suggestion().getId(), value.getId());
+        }
+
+        void collect(String prefix, int limit, Map<Long, TaskSuggestionDto> found) {
+            int index = Arrays.binarySearch(keys, prefix);
+            // Одинаковые ключи разных задач: бинарный поиск может попасть в середину их диапазона
+            int i = index >= 0 ? index : -index - 1;
+            while (i > 0 && keys[i - 1].equals(prefix)) {
+                i--;
+            }
+            for (; i < keys.length && found.size() < limit && keys[i].startsWith(prefix); i++) {
+                found.putIfAbsent(values[i].getId(), values[i]);
+            }
+        }
+    }
+}
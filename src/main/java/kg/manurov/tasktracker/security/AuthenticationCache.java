@@ -0,0 +1,165 @@
+package kg.manurov.tasktracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kg.manurov.tasktracker.cache.CacheInvalidationPublisher;
+import kg.manurov.tasktracker.cache.NearCache;
+import kg.manurov.tasktracker.config.CacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Кэш аутентификации: загруженные пользователи и успешно проверенные пароли.
+ * <p>
+ * Проверенный пароль хранится только как HMAC-SHA256 на случайном ключе, который создается при
+ * старте и не покидает процесс. Запись действительна, пока хеш пароля пользователя не изменился.
+ * Отключение пользователя или смена пароля сбрасывают его записи на всех узлах и отзывают
+ * выпущенные до этого момента токены доступа.
+ * <p>
+ * Аутентификация, начавшаяся до сброса, могла загрузить из базы уже устаревшего пользователя.
+ * Поэтому каждый сброс увеличивает поколение кэша, и записи, начатые в прошлом поколении, пропускаются.
+ */
+@Component
+public class AuthenticationCache implements UserCache, NearCache {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, UserDetails> users;
+    private final Cache<VerifiedPassword, String> verifiedPasswords;
+    private final Cache<String, Long> revocations;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final SecretKeySpec hmacKey;
+    private final ThreadLocal<Mac> mac;
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<Long> authenticationGeneration = new ThreadLocal<>();
+    private volatile BooleanSupplier localCacheEnabled = () -> false;
+
+    public AuthenticationCache(CacheInvalidationPublisher invalidationPublisher,
+                               @Value("${task.security.auth-cache.max-size:10000}") long maxSize,
+                               @Value("${task.security.auth-cache.ttl:60s}") Duration ttl,
+                               @Value("${task.security.token.access-ttl:15m}") Duration accessTokenTtl) {
+        this.invalidationPublisher = invalidationPublisher;
+        this.users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.verifiedPasswords = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        // Отзыв нужен, только пока не истекли выпущенные до него токены доступа
+        this.revocations = Caffeine.newBuilder().expireAfterWrite(accessTokenTtl).build();
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::createMac);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return localCacheEnabled.getAsBoolean() ? users.getIfPresent(username) : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (localCacheEnabled.getAsBoolean() && !invalidatedSinceStart()) {
+            users.put(user.getUsername(), user);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+
+    public boolean isVerified(String email, String rawPassword, String passwordHash) {
+        if (!localCacheEnabled.getAsBoolean()) {
+            return false;
+        }
+        String verifiedHash = verifiedPasswords.getIfPresent(new VerifiedPassword(email, digest(rawPassword)));
+        return passwordHash.equals(verifiedHash);
+    }
+
+    public void markVerified(String email, String rawPassword, String passwordHash) {
+        if (localCacheEnabled.getAsBoolean() && !invalidatedSinceStart()) {
+            verifiedPasswords.put(new VerifiedPassword(email, digest(rawPassword)), passwordHash);
+        }
+    }
+
+    // Запоминает поколение кэша до загрузки пользователя; парный вызов — endAuthentication()
+    public void beginAuthentication() {
+        authenticationGeneration.set(generation.get());
+    }
+
+    public void endAuthentication() {
+        authenticationGeneration.remove();
+    }
+
+    public boolean isRevoked(String email, long issuedAt) {
+        Long revokedAt = revocations.getIfPresent(email);
+        return revokedAt != null && issuedAt < revokedAt;
+    }
+
+    public void invalidate(String email) {
+        evictLocal(CacheNames.AUTHENTICATION, email);
+        invalidationPublisher.publishEvict(CacheNames.AUTHENTICATION, email);
+    }
+
+    @Override
+    public void evictLocal(String cacheName, String key) {
+        if (CacheNames.AUTHENTICATION.equals(cacheName)) {
+            generation.incrementAndGet();
+            revocations.put(key, System.currentTimeMillis());
+            users.invalidate(key);
+            verifiedPasswords.asMap().keySet().removeIf(verified -> verified.email().equals(key));
+        }
+    }
+
+    @Override
+    public void clearLocal(String cacheName) {
+        if (CacheNames.AUTHENTICATION.equals(cacheName)) {
+            clearAllLocal();
+        }
+    }
+
+    @Override
+    public void clearAllLocal() {
+        generation.incrementAndGet();
+        users.invalidateAll();
+        verifiedPasswords.invalidateAll();
+    }
+
+    @Override
+    public void setLocalCacheEnabled(BooleanSupplier localCacheEnabled) {
+        this.localCacheEnabled = localCacheEnabled;
+    }
+
+    private boolean invalidatedSinceStart() {
+        Long started = authenticationGeneration.get();
+        return started != null && started != generation.get();
+    }
+
+    private String digest(String rawPassword) {
+        byte[] digest = mac.get().doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(hmacKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 недоступен", e);
+        }
+    }
+
+    private record VerifiedPassword(String email, String digest) {
+    }
+}
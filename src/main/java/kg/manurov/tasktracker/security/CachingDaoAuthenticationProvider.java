@@ -0,0 +1,44 @@
+package kg.manurov.tasktracker.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Пропускает проверку BCrypt, если этот пароль недавно уже был успешно проверен для пользователя
+ * с тем же хешем пароля. Пользователи при этом берутся из {@link AuthenticationCache}, а не из базы.
+ * Если во время аутентификации пользователь был сброшен из кэша, результат в кэш не записывается.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+    private final AuthenticationCache authenticationCache;
+
+    public CachingDaoAuthenticationProvider(AuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
+        setUserCache(authenticationCache);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        authenticationCache.beginAuthentication();
+        try {
+            return super.authenticate(authentication);
+        } finally {
+            authenticationCache.endAuthentication();
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && userDetails.getPassword() != null
+                && authenticationCache.isVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        authenticationCache.markVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -0,0 +1,186 @@
+package kg.manurov.tasktracker.security;
+
+import kg.manurov.tasktracker.domain.dto.TokenResponseDto;
+import kg.manurov.tasktracker.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Выпускает и проверяет токены вида {@code base64url(payload).base64url(HMAC-SHA256(payload))}.
+ * <p>
+ * Токен доступа проверяется только в памяти: подпись, срок действия и отзыв через
+ * {@link AuthenticationCache}. Токен обновления дополнительно содержит отпечаток хеша пароля
+ * и при обмене сверяется с пользователем из базы, поэтому смена пароля или отключение
+ * пользователя делают его недействительным.
+ */
+@Slf4j
+@Service
+public class TokenService {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = "\n";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final UserService userService;
+    private final AuthenticationCache authenticationCache;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public TokenService(UserService userService,
+                        AuthenticationCache authenticationCache,
+                        @Value("${task.security.token.secret:}") String secret,
+                        @Value("${task.security.token.access-ttl:15m}") Duration accessTtl,
+                        @Value("${task.security.token.refresh-ttl:7d}") Duration refreshTtl,
+                        @Value("${task.security.token.allow-random-secret:false}") boolean allowRandomSecret) {
+        this.userService = userService;
+        this.authenticationCache = authenticationCache;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.key = new SecretKeySpec(resolveSecret(secret, allowRandomSecret), HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::createMac);
+    }
+
+    public TokenResponseDto issue(UserDetails user) {
+        long now = System.currentTimeMillis();
+        String roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+
+        String accessToken = sign(String.join(SEPARATOR,
+                ACCESS, user.getUsername(), roles, Long.toString(now), Long.toString(now + accessTtl.toMillis())));
+        String refreshToken = sign(String.join(SEPARATOR,
+                REFRESH, user.getUsername(), passwordFingerprint(user.getPassword()),
+                Long.toString(now), Long.toString(now + refreshTtl.toMillis())));
+        return new TokenResponseDto(accessToken, refreshToken, "Bearer", accessTtl.toSeconds());
+    }
+
+    /**
+     * Проверяет токен доступа без обращения к базе.
+     *
+     * @return данные токена или {@code null}, если токен недействителен
+     */
+    public AccessToken verifyAccessToken(String token) {
+        String[] claims = verify(token);
+        if (claims == null || claims.length != 5 || !ACCESS.equals(claims[0])) {
+            return null;
+        }
+
+        long issuedAt = Long.parseLong(claims[3]);
+        long expiresAt = Long.parseLong(claims[4]);
+        if (System.currentTimeMillis() >= expiresAt || authenticationCache.isRevoked(claims[1], issuedAt)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = claims[2].isEmpty()
+                ? List.of()
+                : AuthorityUtils.commaSeparatedStringToAuthorityList(claims[2]);
+        return new AccessToken(claims[1], authorities);
+    }
+
+    public TokenResponseDto refresh(String refreshToken) {
+        String[] claims = verify(refreshToken);
+        if (claims == null || claims.length != 5 || !REFRESH.equals(claims[0])
+                || System.currentTimeMillis() >= Long.parseLong(claims[4])) {
+            throw new BadCredentialsException("Недействительный токен обновления");
+        }
+
+        UserDetails user = userService.loadUserByUsername(claims[1]);
+        if (!user.isEnabled()) {
+            throw new DisabledException("Пользователь отключен");
+        }
+        if (!MessageDigest.isEqual(passwordFingerprint(user.getPassword()).getBytes(StandardCharsets.UTF_8),
+                claims[2].getBytes(StandardCharsets.UTF_8))) {
+            throw new BadCredentialsException("Недействительный токен обновления");
+        }
+        return issue(user);
+    }
+
+    private String sign(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(mac.get().doFinal(bytes));
+    }
+
+    private String[] verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(mac.get().doFinal(payload), signature)) {
+                return null;
+            }
+            return new String(payload, StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String passwordFingerprint(String passwordHash) {
+        byte[] digest = mac.get().doFinal((REFRESH + SEPARATOR + passwordHash).getBytes(StandardCharsets.UTF_8));
+        return ENCODER.encodeToString(Arrays.copyOf(digest, 16));
+    }
+
+    // Случайный секрет допустим только для разработки и тестов: с ним токены не переживают перезапуск
+    // и не принимаются другими узлами, поэтому без явного разрешения приложение не стартует
+    private byte[] resolveSecret(String secret, boolean allowRandomSecret) {
+        if (secret != null && !secret.isBlank()) {
+            byte[] decoded;
+            try {
+                decoded = Base64.getDecoder().decode(secret.strip());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Секрет токенов (task.security.token.secret) должен быть в Base64", e);
+            }
+            if (decoded.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("Секрет токенов (task.security.token.secret) должен быть не короче "
+                        + MIN_SECRET_BYTES + " байт, задано " + decoded.length);
+            }
+            return decoded;
+        }
+        if (!allowRandomSecret) {
+            throw new IllegalStateException("Секрет токенов не задан (task.security.token.secret)");
+        }
+        log.warn("Секрет токенов не задан (task.security.token.secret), используется случайный: " +
+                "токены не будут действительны на других узлах и после перезапуска");
+        byte[] random = new byte[MIN_SECRET_BYTES];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 недоступен", e);
+        }
+    }
+
+    public record AccessToken(String email, List<GrantedAuthority> authorities) {
+    }
+}
@@ -23,4 +23,8 @@ public class ErrorService {
                 });
         return new ErrorResponseBody("Ошибка валидации", reasons);
     }
+
+    public ErrorResponseBody makeResponse(String field, String message) {
+        return new ErrorResponseBody("Ошибка валидации", Map.of(field, List.of(message)));
+    }
 }
@@ -0,0 +1,232 @@
+package kg.manurov.tasktracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kg.manurov.tasktracker.cache.IdempotencyStore;
+import kg.manurov.tasktracker.exception.IdempotentReplayException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет запрос с ключом идемпотентности не более одного раза. Успешный ответ сохраняется вместе
+ * с отпечатком тела запроса, и повтор с тем же ключом получает сохраненный ответ без повторного выполнения.
+ * Одновременные повторы на одном узле ждут первый запрос и получают его ответ.
+ * <p>
+ * Ответы с ошибкой не сохраняются, поэтому запрос, завершившийся ошибкой, можно повторить с тем же ключом.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param scope   операция, к которой относится ключ: один и тот же ключ в разных операциях не пересекается
+     * @param request тело запроса для сверки с сохраненным отпечатком, null если тело не сверяется
+     */
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        String fingerprint = fingerprint(request);
+        return execute(scope, idempotencyKey, () -> fingerprint, responseType, action);
+    }
+
+    /**
+     * Вариант для тела, которое читается потоком: отпечаток считается по байтам, прочитанным действием.
+     * При повторе действие не выполняется, и тело дочитывается только для сверки отпечатка.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, DigestedBody body,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return execute(scope, idempotencyKey, body::fingerprint, responseType, action);
+    }
+
+    private <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Supplier<String> fingerprint,
+                                          Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Ключ идемпотентности должен быть непустым и не длиннее "
+                    + MAX_KEY_LENGTH + " символов");
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        StoredResponse stored = read(key);
+        if (stored != null) {
+            return replay(key, stored, fingerprint, responseType);
+        }
+
+        CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            log.info("Запрос с ключом идемпотентности {} уже выполняется, ожидание его результата", key);
+            return replay(key, await(running), fingerprint, responseType);
+        }
+
+        try {
+            // Первый запрос мог завершиться между чтением хранилища и регистрацией текущего
+            stored = read(key);
+            if (stored != null) {
+                own.complete(stored);
+                return replay(key, stored, fingerprint, responseType);
+            }
+
+            String lockToken = store.tryLock(key);
+            if (lockToken == null) {
+                throw new IllegalStateException("Запрос с этим ключом идемпотентности уже выполняется, повторите позже");
+            }
+            try {
+                ResponseEntity<T> response = action.get();
+                StoredResponse result = toStored(fingerprint.get(), response);
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    store.put(key, write(result));
+                }
+                own.complete(result);
+                return response;
+            } finally {
+                store.unlock(key, lockToken);
+            }
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(String key, StoredResponse stored, Supplier<String> fingerprint,
+                                         Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint.get())) {
+            throw new IllegalArgumentException("Ключ идемпотентности уже использован с другим телом запроса");
+        }
+        log.info("Повтор запроса с ключом идемпотентности {}, возвращается сохраненный ответ", key);
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            log.error("Сохраненный ответ по ключу идемпотентности {} не удалось прочитать", key, e);
+            throw new IdempotentReplayException("Не удалось восстановить сохраненный ответ по ключу " + key, e);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private StoredResponse read(String key) {
+        String value = store.get(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Сохраненный ответ по ключу идемпотентности {} поврежден и игнорируется", key);
+            return null;
+        }
+    }
+
+    private String write(StoredResponse stored) {
+        try {
+            return objectMapper.writeValueAsString(stored);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ по ключу идемпотентности", e);
+        }
+    }
+
+    private StoredResponse toStored(String fingerprint, ResponseEntity<?> response) {
+        try {
+            String body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+            return new StoredResponse(fingerprint, response.getStatusCode().value(), body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ по ключу идемпотентности", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        if (request == null) {
+            return "";
+        }
+        try {
+            return encode(sha256().digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось вычислить отпечаток запроса", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private static String encode(byte[] digest) {
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    /**
+     * Тело запроса, отпечаток которого считается по мере чтения. Действие читает {@link #stream()},
+     * а {@link #fingerprint()} дочитывает непрочитанный остаток и возвращает SHA-256 всех байтов тела.
+     */
+    public static final class DigestedBody {
+        private final DigestInputStream stream;
+        private String fingerprint;
+
+        public DigestedBody(InputStream body) {
+            this.stream = new DigestInputStream(body, sha256());
+        }
+
+        public InputStream stream() {
+            return stream;
+        }
+
+        String fingerprint() {
+            if (fingerprint == null) {
+                try {
+                    stream.transferTo(OutputStream.nullOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Не удалось прочитать тело запроса", e);
+                }
+                fingerprint = encode(stream.getMessageDigest().digest());
+            }
+            return fingerprint;
+        }
+    }
+
+    record StoredResponse(String fingerprint, int status, String body) {
+    }
+}
@@ -0,0 +1,149 @@
+package kg.manurov.tasktracker.service;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.ArchivedTask;
+import kg.manurov.tasktracker.exception.TaskNotFoundException;
+import kg.manurov.tasktracker.repositories.ArchivedTaskRepository;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Переносит задачи в финальных статусах из {@code tasks} в {@code tasks_archive} и читает их оттуда.
+ * Рабочая таблица содержит только активные и недавно завершенные задачи, поэтому индексы по статусу
+ * и дате создания не растут вместе с историей.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveService {
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskStatusManager statusManager;
+    private final TaskCacheService taskCacheService;
+    private final TaskTextIndex taskTextIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${task.archive.min-age:30d}")
+    private Duration minAge;
+    @Value("${task.archive.batch-size:500}")
+    private int batchSize;
+    @Value("${task.archive.max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(cron = "${task.archive.cron:0 0 3 * * *}")
+    public void archiveBySchedule() {
+        archiveFinishedTasks();
+    }
+
+    /**
+     * Каждая порция переносится в отдельной транзакции, чтобы не держать блокировки на всю выборку.
+     * За один запуск переносится не более max-batches порций, остаток подберет следующий запуск.
+     *
+     * @return количество перенесенных задач
+     */
+    public int archiveFinishedTasks() {
+        List<TaskStatus> finalStatuses = finalStatuses();
+        List<String> statusNames = finalStatuses.stream().map(TaskStatus::name).toList();
+        LocalDateTime updatedBefore = LocalDateTime.now().minus(minAge);
+        log.info("Перенос в архив задач со статусами {}, измененных до {}", statusNames, updatedBefore);
+
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = transactionTemplate.execute(status -> moveBatch(statusNames, updatedBefore));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            taskCacheService.tasksArchived(ids, finalStatuses);
+            taskTextIndex.removed(ids);
+            archived += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        log.info("В архив перенесено {} задач", archived);
+        return archived;
+    }
+
+    public TaskDto getTaskById(Long id, boolean includeArchived) {
+        if (!includeArchived) {
+            return taskService.getTaskById(id);
+        }
+        try {
+            return taskService.getTaskById(id);
+        } catch (TaskNotFoundException e) {
+            log.info("Задача с ID {} не найдена в рабочей таблице, поиск в архиве", id);
+            return archivedTaskRepository.findById(id)
+                    .map(this::convertToDTO)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // Архив содержит только финальные статусы, поэтому для активных он не запрашивается
+    public List<TaskDto> getTasksByStatus(TaskStatus status, boolean includeArchived, boolean withDescription) {
+        List<TaskDto> tasks = withDescription
+                ? taskService.getTasksByStatus(status)
+                : taskService.getTaskSummariesByStatus(status);
+        if (!includeArchived || !statusManager.isFinalStatus(status)) {
+            return tasks;
+        }
+
+        List<TaskDto> archived = withDescription
+                ? archivedTaskRepository.findDtosByStatus(status.name())
+                : archivedTaskRepository.findSummariesByStatus(status.name());
+        log.info("Найдено {} задач со статусом {} в архиве", archived.size(), status);
+        List<TaskDto> result = new ArrayList<>(tasks.size() + archived.size());
+        result.addAll(tasks);
+        result.addAll(archived);
+        return result;
+    }
+
+    private List<Long> moveBatch(List<String> statuses, LocalDateTime updatedBefore) {
+        List<Long> ids = taskRepository.findIdsToArchive(statuses, updatedBefore, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        int copied = archivedTaskRepository.copyFromTasks(ids, statuses, LocalDateTime.now());
+        int deleted = taskRepository.deleteArchived(ids, statuses);
+        if (copied != deleted) {
+            throw new IllegalStateException(String.format(
+                    "В архив скопировано %d задач, а удалено %d, порция откатывается", copied, deleted));
+        }
+        log.debug("Порция из {} задач перенесена в архив", deleted);
+        return ids;
+    }
+
+    private List<TaskStatus> finalStatuses() {
+        return Arrays.stream(TaskStatus.values())
+                .filter(statusManager::isFinalStatus)
+                .toList();
+    }
+
+    private TaskDto convertToDTO(ArchivedTask task) {
+        TaskDto dto = new TaskDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setStatus(task.getStatus());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setVersion(task.getVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,109 @@
+package kg.manurov.tasktracker.service;
+
+import kg.manurov.tasktracker.cache.TaskETagRegistry;
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Точечная инвалидация кэшей задач: каждая мутация затрагивает только запись самой задачи,
+ * списки тех статусов, в которых она была или оказалась, и общий список задач.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskCacheService {
+    private final CacheManager cacheManager;
+    private final TaskETagRegistry taskETags;
+
+    public void taskCreated(TaskDto task) {
+        put(CacheNames.TASK, task.getId(), task);
+        evictStatusLists(task.getStatus());
+        evictAllTasksLists();
+    }
+
+    // Записи отдельных задач при массовом создании не кладутся в кэш, чтобы не делать по обращению к Redis на задачу
+    public void tasksCreated(TaskStatus status) {
+        evictStatusLists(status.name());
+        evictAllTasksLists();
+    }
+
+    // Запись задачи удаляется, а не перезаписывается: параллельные обновления фиксируются
+    // в недетерминированном порядке, и последний put мог бы вернуть в кэш устаревшую версию
+    public void taskUpdated(TaskDto task, TaskStatus previousStatus) {
+        evict(CacheNames.TASK, task.getId());
+        evictStatusLists(previousStatus.name());
+        if (!previousStatus.name().equals(task.getStatus())) {
+            evictStatusLists(task.getStatus());
+        }
+        evictAllTasksLists();
+    }
+
+    public void tasksUpdated(Collection<Long> ids, Set<TaskStatus> previousStatuses, TaskStatus newStatus) {
+        ids.forEach(id -> evict(CacheNames.TASK, id));
+        previousStatuses.forEach(status -> evictStatusLists(status.name()));
+        evictStatusLists(newStatus.name());
+        evictAllTasksLists();
+    }
+
+    // Частичное обновление не читает задачу, поэтому ее статус неизвестен и сбрасываются списки всех статусов
+    public void taskPatched(Long id) {
+        evict(CacheNames.TASK, id);
+        for (TaskStatus status : TaskStatus.values()) {
+            evictStatusLists(status.name());
+        }
+        evictAllTasksLists();
+    }
+
+    public void taskDeleted(Long id, TaskStatus status) {
+        evict(CacheNames.TASK, id);
+        evictStatusLists(status.name());
+        evictAllTasksLists();
+    }
+
+    // Из архива задачи читаются мимо кэша, поэтому достаточно убрать их из кэшей рабочей таблицы
+    public void tasksArchived(Collection<Long> ids, Collection<TaskStatus> statuses) {
+        ids.forEach(id -> evict(CacheNames.TASK, id));
+        statuses.forEach(status -> evictStatusLists(status.name()));
+        evictAllTasksLists();
+    }
+
+    // Списки без описаний сбрасываются первыми: ETag списка общий для обоих представлений
+    // и меняется при инвалидации полного списка, то есть уже после них
+    private void evictStatusLists(String status) {
+        evict(CacheNames.TASK_SUMMARIES_BY_STATUS, status);
+        evict(CacheNames.TASKS_BY_STATUS, status);
+    }
+
+    private void evictAllTasksLists() {
+        evict(CacheNames.TASK_SUMMARIES, CacheNames.ALL_TASKS_KEY);
+        evict(CacheNames.TASKS, CacheNames.ALL_TASKS_KEY);
+    }
+
+    private void put(String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, value);
+            log.debug("Кэш {} обновлен по ключу {}", cacheName, key);
+        }
+        taskETags.invalidate(cacheName, String.valueOf(key));
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+            log.debug("Кэш {} инвалидирован по ключу {}", cacheName, key);
+        }
+        // Регистрируется после инвалидации кэша, поэтому и после коммита выполняется вслед за ней
+        taskETags.invalidate(cacheName, String.valueOf(key));
+    }
+}
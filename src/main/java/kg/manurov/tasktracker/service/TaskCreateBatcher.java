@@ -0,0 +1,153 @@
+package kg.manurov.tasktracker.service;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Групповая фиксация одиночных созданий задач. Запросы, пришедшие в течение окна, записываются
+ * одной транзакцией с пакетными INSERT, и каждый ожидающий вызов получает свою задачу с присвоенным ID.
+ * Окно закрывается по времени или при наборе max-batch-size задач.
+ * <p>
+ * Режим выключен по умолчанию: каждое создание тогда выполняется в своей транзакции. Если очередь
+ * переполнена, задача также создается сразу, без ожидания окна.
+ */
+@Slf4j
+@Service
+public class TaskCreateBatcher implements InitializingBean, DisposableBean {
+    private final TaskService taskService;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingCreate> queue;
+    private volatile boolean running;
+    private Thread worker;
+
+    public TaskCreateBatcher(TaskService taskService,
+                             @Value("${task.create.group-commit.enabled:false}") boolean enabled,
+                             @Value("${task.create.group-commit.window:5ms}") Duration window,
+                             @Value("${task.create.group-commit.max-batch-size:50}") int maxBatchSize,
+                             @Value("${task.create.group-commit.queue-capacity:1000}") int queueCapacity) {
+        this.taskService = taskService;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public TaskDto create(TaskDto task) {
+        if (!running) {
+            return taskService.createTask(task);
+        }
+
+        PendingCreate pending = new PendingCreate(task, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.debug("Очередь групповой фиксации заполнена, задача создается сразу");
+            return taskService.createTask(task);
+        }
+        // destroy() мог остановить обработчик и разобрать очередь между проверкой running и offer:
+        // если задачу еще никто не забрал, она создается здесь, иначе ее завершит тот, кто забрал
+        if (!running && queue.remove(pending)) {
+            return taskService.createTask(task);
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::processQueue, "task-create-batcher");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Групповая фиксация создания задач включена: окно {} мкс, до {} задач",
+                TimeUnit.NANOSECONDS.toMicros(windowNanos), maxBatchSize);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        // Задачи, принятые в очередь до остановки, создаются по одной, чтобы вызовы не зависли
+        List<PendingCreate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::writeOne);
+    }
+
+    private void processQueue() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(this::writeOne);
+                return;
+            }
+
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // Если группа не записалась, задачи создаются по одной, чтобы ошибка одной не отклонила остальные
+    private void write(List<PendingCreate> batch) {
+        List<TaskDto> created;
+        try {
+            created = taskService.createTasks(batch.stream().map(PendingCreate::task).toList());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать группу из {} задач, создание по одной: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOne);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(created.get(i));
+        }
+        log.debug("Группа из {} задач записана одной транзакцией", batch.size());
+    }
+
+    private void writeOne(PendingCreate pending) {
+        try {
+            pending.result().complete(taskService.createTask(pending.task()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private record PendingCreate(TaskDto task, CompletableFuture<TaskDto> result) {
+    }
+}
@@ -0,0 +1,138 @@
+package kg.manurov.tasktracker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.ExportFormat;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+    private static final String CSV_HEADER = "id,title,description,status,createdAt,updatedAt";
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Пишет все задачи в поток по мере чтения курсора БД. Строки читаются сразу в {@link TaskDto},
+     * которые не попадают в контекст персистентности, поэтому потребление памяти не зависит от размера таблицы.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(ExportFormat format, OutputStream outputStream) throws IOException {
+        log.info("Экспорт задач в формате {}", format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == ExportFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<TaskDto> tasks = taskRepository.streamAllDtos()) {
+            Iterator<TaskDto> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                TaskDto task = iterator.next();
+                if (json != null) {
+                    writeJsonLine(json, task);
+                } else {
+                    writeCsvLine(writer, task);
+                }
+
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    flush(json, writer);
+                }
+            }
+        }
+        flush(json, writer);
+
+        log.info("Экспортировано {} задач в формате {}", count, format);
+        return count;
+    }
+
+    private void writeJsonLine(JsonGenerator json, TaskDto task) throws IOException {
+        json.writeStartObject();
+        if (task.getId() != null) {
+            json.writeNumberField("id", task.getId());
+        } else {
+            json.writeNullField("id");
+        }
+        json.writeStringField("title", task.getTitle());
+        json.writeStringField("description", task.getDescription());
+        json.writeStringField("status", task.getStatus());
+        json.writeStringField("createdAt", formatDate(task.getCreatedAt()));
+        json.writeStringField("updatedAt", formatDate(task.getUpdatedAt()));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsvLine(Writer writer, TaskDto task) throws IOException {
+        writer.write(task.getId() != null ? task.getId().toString() : "");
+        writer.write(',');
+        writeCsvValue(writer, task.getTitle());
+        writer.write(',');
+        writeCsvValue(writer, task.getDescription());
+        writer.write(',');
+        writeCsvValue(writer, task.getStatus());
+        writer.write(',');
+        writeCsvValue(writer, formatDate(task.getCreatedAt()));
+        writer.write(',');
+        writeCsvValue(writer, formatDate(task.getUpdatedAt()));
+        writer.write('\n');
+    }
+
+    // RFC 4180: значения с разделителями, кавычками или переводами строк заключаются в кавычки
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private void flush(JsonGenerator json, Writer writer) throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private String formatDate(LocalDateTime dateTime) {
+        return dateTime != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime) : null;
+    }
+}
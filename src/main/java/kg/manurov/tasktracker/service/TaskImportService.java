@@ -0,0 +1,174 @@
+package kg.manurov.tasktracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import kg.manurov.tasktracker.domain.dto.BulkCreateResultDto;
+import kg.manurov.tasktracker.domain.dto.BulkItemResultDto;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+    private final TaskRepository taskRepository;
+    private final TaskStatusManager statusManager;
+    private final TaskCacheService taskCacheService;
+    private final TaskStatusCounters statusCounters;
+    private final TaskTextIndex taskTextIndex;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${task.bulk.max-size:5000}")
+    private int maxSize;
+    @Value("${task.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional
+    public BulkCreateResultDto createTasks(List<TaskDto> tasks) {
+        log.info("Массовое создание {} задач", tasks.size());
+        checkSize(tasks.size());
+        return importItems(tasks.stream().map(ImportItem::of).iterator());
+    }
+
+    /**
+     * Читает задачи из NDJSON построчно, не собирая весь запрос в память. Строка с некорректным JSON
+     * отклоняется как отдельный элемент и не прерывает загрузку остальных.
+     */
+    @Transactional
+    public BulkCreateResultDto importNdjson(InputStream inputStream) {
+        log.info("Массовое создание задач из NDJSON");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        ObjectReader taskReader = objectMapper.readerFor(TaskDto.class);
+        return importItems(reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> parseLine(taskReader, line))
+                .iterator());
+    }
+
+    /**
+     * Валидные задачи вставляются порциями: после каждой порции контекст персистентности сбрасывается
+     * пакетными INSERT и очищается, поэтому память не растет с размером загрузки.
+     */
+    private BulkCreateResultDto importItems(Iterator<ImportItem> items) {
+        List<BulkItemResultDto> results = new ArrayList<>();
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int index = 0;
+        int created = 0;
+
+        while (items.hasNext()) {
+            checkSize(index + 1);
+            ImportItem item = items.next();
+            Map<String, List<String>> errors = item.task() != null
+                    ? validate(item.task())
+                    : Map.of("json", List.of(item.error()));
+
+            if (errors.isEmpty()) {
+                chunk.add(convertToEntity(item.task()));
+                chunkIndexes.add(index);
+            } else {
+                results.add(BulkItemResultDto.rejected(index, errors));
+            }
+            index++;
+
+            if (chunk.size() >= chunkSize) {
+                created += saveChunk(chunk, chunkIndexes, results);
+            }
+        }
+        created += saveChunk(chunk, chunkIndexes, results);
+
+        if (created > 0) {
+            taskCacheService.tasksCreated(TaskStatus.PENDING);
+            statusCounters.created(TaskStatus.PENDING, created);
+        }
+        results.sort(Comparator.comparingInt(BulkItemResultDto::getIndex));
+
+        log.info("Массовое создание завершено: создано {}, отклонено {}", created, index - created);
+        return new BulkCreateResultDto(created, index - created, results);
+    }
+
+    private int saveChunk(List<Task> chunk, List<Integer> chunkIndexes, List<BulkItemResultDto> results) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        taskRepository.saveAll(chunk);
+        entityManager.flush();
+        statusManager.getStrategy(TaskStatus.PENDING).onEnterAll(chunk);
+        taskTextIndex.indexed(chunk);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(BulkItemResultDto.created(chunkIndexes.get(i), chunk.get(i).getId()));
+        }
+        int saved = chunk.size();
+        entityManager.clear();
+        chunk.clear();
+        chunkIndexes.clear();
+
+        log.debug("Сохранена порция из {} задач", saved);
+        return saved;
+    }
+
+    private Map<String, List<String>> validate(TaskDto task) {
+        Map<String, List<String>> errors = new TreeMap<>();
+        for (ConstraintViolation<TaskDto> violation : validator.validate(task)) {
+            errors.computeIfAbsent(violation.getPropertyPath().toString(), field -> new ArrayList<>())
+                    .add(violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void checkSize(int size) {
+        if (size > maxSize) {
+            throw new IllegalArgumentException("За один запрос можно создать не более " + maxSize + " задач");
+        }
+    }
+
+    private ImportItem parseLine(ObjectReader taskReader, String line) {
+        try {
+            return ImportItem.of(taskReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return new ImportItem(null, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // Статус из запроса не учитывается: как и при одиночном создании, задача создается в статусе PENDING
+    private Task convertToEntity(TaskDto dto) {
+        Task task = new Task();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setStatus(TaskStatus.PENDING.name());
+        return task;
+    }
+
+    private record ImportItem(TaskDto task, String error) {
+        static ImportItem of(TaskDto task) {
+            return task != null ? new ImportItem(task, null) : new ImportItem(null, "Элемент не может быть пустым");
+        }
+    }
+}
@@ -1,18 +1,43 @@
 package kg.manurov.tasktracker.service;
 
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.BulkStatusChangeResultDto;
+import kg.manurov.tasktracker.domain.dto.TaskCursor;
 import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.dto.TaskFields;
+import kg.manurov.tasktracker.domain.dto.TaskPageDto;
+import kg.manurov.tasktracker.domain.dto.TaskPatchDto;
+import kg.manurov.tasktracker.domain.dto.TaskSearchCriteria;
+import kg.manurov.tasktracker.domain.dto.TaskTextSearchPageDto;
+import kg.manurov.tasktracker.domain.enums.TaskField;
 import kg.manurov.tasktracker.domain.enums.TaskStatus;
 import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.exception.InvalidStatusTransitionException;
+import kg.manurov.tasktracker.exception.PreconditionFailedException;
 import kg.manurov.tasktracker.exception.TaskNotFoundException;
 import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -21,6 +46,16 @@ import java.util.List;
 public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskStatusManager statusManager;
+    private final TaskCacheService taskCacheService;
+    private final TaskStatusCounters statusCounters;
+    private final TaskTextIndex taskTextIndex;
+
+    @Value("${task.pagination.default-size:20}")
+    private int defaultPageSize;
+    @Value("${task.pagination.max-size:100}")
+    private int maxPageSize;
+    @Value("${task.bulk.max-size:5000}")
+    private int maxBulkSize;
 
     public TaskDto createTask(TaskDto taskDTO) {
         log.info("Создание новой задачи: {}", taskDTO.getTitle());
@@ -32,17 +67,105 @@ public class TaskService {
         Task savedTask = taskRepository.save(task);
 
         statusManager.getStrategy(TaskStatus.PENDING).onEnter(savedTask);
+        statusCounters.created(TaskStatus.PENDING, 1);
+        taskTextIndex.indexed(savedTask);
+
+        TaskDto createdTask = convertToDTO(savedTask);
+        taskCacheService.taskCreated(createdTask);
 
         log.info("Задача успешно создана с ID: {}", savedTask.getId());
-        return convertToDTO(savedTask);
+        return createdTask;
+    }
+
+
+    /**
+     * Создает задачи одной транзакцией: вставки сбрасываются пакетами, а хук статуса PENDING
+     * вызывается один раз на всю группу.
+     */
+    public List<TaskDto> createTasks(List<TaskDto> taskDTOs) {
+        log.info("Создание группы из {} задач", taskDTOs.size());
+
+        List<Task> tasks = new ArrayList<>(taskDTOs.size());
+        for (TaskDto taskDTO : taskDTOs) {
+            Task task = convertToEntity(taskDTO);
+            task.setStatus(TaskStatus.PENDING.name());
+            tasks.add(task);
+        }
+
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        statusManager.getStrategy(TaskStatus.PENDING).onEnterAll(savedTasks);
+        statusCounters.created(TaskStatus.PENDING, savedTasks.size());
+        taskTextIndex.indexed(savedTasks);
+
+        List<TaskDto> createdTasks = savedTasks.stream()
+                .map(this::convertToDTO)
+                .toList();
+        taskCacheService.tasksCreated(TaskStatus.PENDING);
+
+        log.info("Группа из {} задач успешно создана", createdTasks.size());
+        return createdTasks;
     }
 
 
-    @Cacheable(value = "tasksCache", key = "'all_tasks'")
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.TASKS, key = "'" + CacheNames.ALL_TASKS_KEY + "'", sync = true)
     public List<TaskDto> getAllTasks() {
         log.info("Получение списка всех задач");
 
-        List<Task> tasks = taskRepository.findAllByOrderByCreatedAtDesc();
+        List<TaskDto> tasks = taskRepository.findAllDtos();
+
+        log.info("Найдено {} задач", tasks.size());
+        return tasks;
+    }
+
+
+    // Списки без описаний кэшируются отдельно, чтобы в Redis не попадали большие описания
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.TASK_SUMMARIES, key = "'" + CacheNames.ALL_TASKS_KEY + "'", sync = true)
+    public List<TaskDto> getAllTaskSummaries() {
+        log.info("Получение списка всех задач без описаний");
+
+        List<TaskDto> tasks = taskRepository.findAllSummaries();
+
+        log.info("Найдено {} задач", tasks.size());
+        return tasks;
+    }
+
+
+    @Transactional(readOnly = true)
+    public TaskPageDto getTasksPage(String cursor, Integer size, TaskFields fields) {
+        int pageSize = resolvePageSize(size);
+        boolean withDescription = fields.includes(TaskField.DESCRIPTION);
+        log.info("Получение страницы задач: курсор={}, размер={}, с описаниями={}", cursor, pageSize, withDescription);
+
+        // Запрашиваем на одну запись больше, чтобы узнать о наличии следующей страницы без count-запроса
+        Limit limit = Limit.of(pageSize + 1);
+        List<TaskDto> tasks;
+        if (cursor == null || cursor.isBlank()) {
+            tasks = withDescription ? taskRepository.findDtoPage(limit) : taskRepository.findSummaryPage(limit);
+        } else {
+            TaskCursor position = TaskCursor.decode(cursor);
+            tasks = withDescription
+                    ? taskRepository.findDtoPageAfter(position.createdAt(), position.id(), limit)
+                    : taskRepository.findSummaryPageAfter(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = tasks.size() > pageSize;
+        List<TaskDto> page = hasNext ? List.copyOf(tasks.subList(0, pageSize)) : tasks;
+        String nextCursor = hasNext ? TaskCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        log.info("Найдено {} задач на странице, есть следующая: {}", page.size(), hasNext);
+        return new TaskPageDto(fields.select(page), nextCursor, hasNext);
+    }
+
+
+    @Transactional(readOnly = true)
+    public List<TaskDto> searchTasks(TaskSearchCriteria criteria, Integer size) {
+        int limit = resolvePageSize(size);
+        log.info("Поиск задач: {}, лимит={}", criteria, limit);
+
+        List<Task> tasks = taskRepository.search(criteria, limit);
 
         log.info("Найдено {} задач", tasks.size());
         return tasks.stream()
@@ -51,7 +174,43 @@ public class TaskService {
     }
 
 
+    /**
+     * Полнотекстовый поиск по названию и описанию: индекс в памяти отдает идентификаторы страницы
+     * в порядке релевантности, из базы читаются только задачи этой страницы.
+     */
+    @Transactional(readOnly = true)
+    public TaskTextSearchPageDto searchTasksByText(String query, Integer page, Integer size) {
+        int pageSize = resolvePageSize(size);
+        int pageNumber = page != null ? page : 0;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Номер страницы не может быть отрицательным");
+        }
+        if ((long) pageNumber * pageSize > Integer.MAX_VALUE - pageSize) {
+            throw new IllegalArgumentException("Слишком большой номер страницы");
+        }
+        if (!taskTextIndex.isReady()) {
+            throw new IllegalStateException("Поисковый индекс еще строится, повторите запрос позже");
+        }
+        log.info("Полнотекстовый поиск задач: '{}', страница {}, размер {}", query, pageNumber, pageSize);
+
+        TaskTextIndex.Hits hits = taskTextIndex.search(query, pageNumber * pageSize, pageSize);
+        Map<Long, Task> tasks = taskRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        // Задача могла быть удалена после поиска по индексу, такие пропускаются
+        List<TaskDto> content = hits.ids().stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .toList();
+
+        log.info("Найдено {} задач, на странице {}", hits.total(), content.size());
+        return new TaskTextSearchPageDto(content, hits.total(), pageNumber,
+                (long) (pageNumber + 1) * pageSize < hits.total());
+    }
+
+
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.TASK, key = "#id", sync = true)
     public TaskDto getTaskById(Long id) {
         log.info("Поиск задачи с ID: {}", id);
 
@@ -63,10 +222,17 @@ public class TaskService {
 
 
     public TaskDto updateTask(Long id, TaskDto taskDTO) {
+        return updateTask(id, taskDTO, null);
+    }
+
+    public TaskDto updateTask(Long id, TaskDto taskDTO, Long expectedVersion) {
         log.info("Обновление задачи с ID: {}", id);
 
+        // Задача загружается один раз: по этому же снимку проверяется переход и применяются изменения
         Task existingTask = findTaskById(id);
+        checkVersion(existingTask, expectedVersion);
         TaskStatus oldStatus = TaskStatus.valueOf(existingTask.getStatus());
+        TaskStatus newStatus = resolveNewStatus(taskDTO.getStatus(), oldStatus);
 
         if (taskDTO.getTitle() != null) {
             existingTask.setTitle(taskDTO.getTitle());
@@ -74,28 +240,35 @@ public class TaskService {
         if (taskDTO.getDescription() != null) {
             existingTask.setDescription(taskDTO.getDescription());
         }
-
-        if (taskDTO.getStatus() != null && !taskDTO.getStatus().isEmpty()) {
-            TaskStatus newStatus = TaskStatus.fromString(taskDTO.getStatus())
-                    .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + taskDTO.getStatus()));
-
-            if (oldStatus != newStatus) {
-                statusManager.executeTransition(existingTask, newStatus);
-            }
+        if (oldStatus != newStatus) {
+            statusManager.executeTransition(existingTask, newStatus);
         }
         existingTask.setUpdatedAt(LocalDateTime.now());
 
         Task updatedTask = taskRepository.save(existingTask);
+        // Версия увеличивается при сбросе изменений, поэтому ответ строится после flush
+        taskRepository.flush();
+        if (taskDTO.getTitle() != null || taskDTO.getDescription() != null) {
+            taskTextIndex.indexed(updatedTask);
+        }
+
+        TaskDto result = convertToDTO(updatedTask);
+        taskCacheService.taskUpdated(result, oldStatus);
 
         log.info("Задача с ID {} успешно обновлена", id);
-        return convertToDTO(updatedTask);
+        return result;
     }
 
 
     public TaskDto changeTaskStatus(Long id, TaskStatus newStatus) {
+        return changeTaskStatus(id, newStatus, null);
+    }
+
+    public TaskDto changeTaskStatus(Long id, TaskStatus newStatus, Long expectedVersion) {
         log.info("Изменение статуса задачи {} на {}", id, newStatus);
 
         Task task = findTaskById(id);
+        checkVersion(task, expectedVersion);
         TaskStatus currentStatus = TaskStatus.valueOf(task.getStatus());
 
         if (currentStatus == newStatus) {
@@ -106,9 +279,112 @@ public class TaskService {
         statusManager.executeTransition(task, newStatus);
         task.setUpdatedAt(LocalDateTime.now());
         Task updatedTask = taskRepository.save(task);
+        taskRepository.flush();
+
+        TaskDto result = convertToDTO(updatedTask);
+        taskCacheService.taskUpdated(result, currentStatus);
 
         log.info("Статус задачи {} успешно изменен с {} на {}", id, currentStatus, newStatus);
-        return convertToDTO(updatedTask);
+        return result;
+    }
+
+    /**
+     * Изменяет только переданные поля одним UPDATE с условием на версию, не загружая задачу.
+     *
+     * @return новая версия задачи
+     */
+    public long patchTask(Long id, TaskPatchDto patch, long expectedVersion) {
+        log.info("Частичное обновление задачи {} версии {}", id, expectedVersion);
+
+        int updated = taskRepository.patch(id, expectedVersion, patch.getTitle(), patch.getDescription(),
+                LocalDateTime.now());
+        if (updated == 0) {
+            if (!taskRepository.existsById(id)) {
+                log.warn("Задача с ID {} не найдена", id);
+                throw new TaskNotFoundException("Задача с ID " + id + " не найдена");
+            }
+            throw new PreconditionFailedException("Задача с ID " + id + " была изменена, версия " + expectedVersion + " устарела");
+        }
+
+        taskCacheService.taskPatched(id);
+        taskTextIndex.changed(id);
+        log.info("Задача с ID {} частично обновлена до версии {}", id, expectedVersion + 1);
+        return expectedVersion + 1;
+    }
+
+    /**
+     * Все задачи читаются одним запросом IN (...), и каждая проверяется по матрице переходов.
+     * Если переход не требует хуков стратегий, допустимые задачи обновляются одним UPDATE без загрузки
+     * сущностей, иначе хуки вызываются для каждой задачи, а изменения сбрасываются пакетными UPDATE.
+     */
+    public BulkStatusChangeResultDto changeTaskStatuses(Collection<Long> ids, TaskStatus newStatus) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > maxBulkSize) {
+            throw new IllegalArgumentException("За один запрос можно изменить не более " + maxBulkSize + " задач");
+        }
+        log.info("Массовое изменение статуса {} задач на {}", uniqueIds.size(), newStatus);
+
+        boolean withHooks = statusManager.hasTransitionHooks(newStatus);
+        Map<Long, Task> tasks = new HashMap<>();
+        Map<Long, TaskStatus> currentStatuses = new HashMap<>();
+        if (withHooks) {
+            for (Task task : taskRepository.findAllById(uniqueIds)) {
+                tasks.put(task.getId(), task);
+                currentStatuses.put(task.getId(), TaskStatus.valueOf(task.getStatus()));
+            }
+        } else {
+            for (TaskRepository.StatusView view : taskRepository.findStatusesByIdIn(uniqueIds)) {
+                currentStatuses.put(view.getId(), TaskStatus.valueOf(view.getStatus()));
+            }
+        }
+
+        List<Long> updated = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        Map<Long, String> failed = new LinkedHashMap<>();
+        Set<TaskStatus> previousStatuses = EnumSet.noneOf(TaskStatus.class);
+        for (Long id : uniqueIds) {
+            TaskStatus currentStatus = currentStatuses.get(id);
+            if (currentStatus == null) {
+                failed.put(id, "Задача с ID " + id + " не найдена");
+            } else if (currentStatus == newStatus) {
+                unchanged.add(id);
+            } else if (!statusManager.canTransition(currentStatus, newStatus)) {
+                failed.put(id, String.format("Невозможно изменить статус с '%s' на '%s'",
+                        currentStatus.getDescription(), newStatus.getDescription()));
+            } else {
+                updated.add(id);
+                previousStatuses.add(currentStatus);
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            if (withHooks) {
+                for (Long id : updated) {
+                    Task task = tasks.get(id);
+                    statusManager.executeTransition(task, newStatus);
+                    task.setUpdatedAt(now);
+                }
+                taskRepository.flush();
+            } else {
+                int count = taskRepository.updateStatus(updated,
+                        previousStatuses.stream().map(TaskStatus::name).toList(), newStatus.name(), now);
+                if (count == updated.size()) {
+                    previousStatuses.forEach(from -> statusCounters.moved(from, newStatus,
+                            (int) updated.stream().filter(id -> currentStatuses.get(id) == from).count()));
+                } else {
+                    // Неизвестно, какие именно задачи не обновились: счетчики поправит ближайшая сверка
+                    log.warn("Статус {} из {} задач был изменен параллельно, обновлено {}",
+                            updated.size() - count, updated.size(), count);
+                }
+                log.info("Статус задач {} изменен на {} одним запросом", updated, newStatus);
+            }
+            taskCacheService.tasksUpdated(updated, previousStatuses, newStatus);
+        }
+
+        log.info("Массовое изменение статуса завершено: изменено {}, без изменений {}, отклонено {}",
+                updated.size(), unchanged.size(), failed.size());
+        return new BulkStatusChangeResultDto(updated, unchanged, failed);
     }
 
     public void deleteTask(Long id) {
@@ -123,19 +399,32 @@ public class TaskService {
         }
 
         taskRepository.delete(task);
+        statusCounters.deleted(TaskStatus.valueOf(task.getStatus()));
+        taskTextIndex.removed(List.of(id));
+        taskCacheService.taskDeleted(id, TaskStatus.valueOf(task.getStatus()));
         log.info("Задача с ID {} успешно удалена", id);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.TASKS_BY_STATUS, key = "#status.name()", sync = true)
     public List<TaskDto> getTasksByStatus(TaskStatus status) {
         log.info("Поиск задач по статусу: {}", status);
 
-        List<Task> tasks = taskRepository.findByStatus(status.name());
+        List<TaskDto> tasks = taskRepository.findDtosByStatus(status.name());
 
         log.info("Найдено {} задач со статусом {}", tasks.size(), status);
-        return tasks.stream()
-                .map(this::convertToDTO)
-                .toList();
+        return tasks;
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.TASK_SUMMARIES_BY_STATUS, key = "#status.name()", sync = true)
+    public List<TaskDto> getTaskSummariesByStatus(TaskStatus status) {
+        log.info("Поиск задач без описаний по статусу: {}", status);
+
+        List<TaskDto> tasks = taskRepository.findSummariesByStatus(status.name());
+
+        log.info("Найдено {} задач со статусом {}", tasks.size(), status);
+        return tasks;
     }
 
 
@@ -147,6 +436,43 @@ public class TaskService {
 
 
 
+    private TaskStatus resolveNewStatus(String requestedStatus, TaskStatus currentStatus) {
+        if (requestedStatus == null || requestedStatus.isEmpty()) {
+            return currentStatus;
+        }
+
+        TaskStatus newStatus = TaskStatus.fromString(requestedStatus)
+                .orElseThrow(() -> new IllegalArgumentException("Неверный статус: " + requestedStatus));
+        if (newStatus != currentStatus && !statusManager.canTransition(currentStatus, newStatus)) {
+            throw new InvalidStatusTransitionException(String.format(
+                    "Невозможно изменить статус с '%s' на '%s'. %s",
+                    currentStatus.getDescription(),
+                    newStatus.getDescription(),
+                    statusManager.getTransitionDescription(currentStatus)
+            ));
+        }
+        return newStatus;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            log.warn("Версия задачи {} не совпадает: текущая {}, ожидалась {}", task.getId(), task.getVersion(), expectedVersion);
+            throw new PreconditionFailedException(String.format(
+                    "Задача с ID %d была изменена: текущая версия %d, ожидалась %d",
+                    task.getId(), task.getVersion(), expectedVersion));
+        }
+    }
+
     private Task findTaskById(Long id) {
         return taskRepository.findById(id)
                 .orElseThrow(() -> {
@@ -163,6 +489,7 @@ public class TaskService {
         dto.setStatus(task.getStatus());
         dto.setCreatedAt(task.getCreatedAt());
         dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setVersion(task.getVersion());
         return dto;
     }
 
@@ -0,0 +1,109 @@
+package kg.manurov.tasktracker.service;
+
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.repositories.ArchivedTaskRepository;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Количество задач по статусам, включая архивные, без обращения к базе. Счетчики заполняются одним
+ * GROUP BY при старте, обновляются при создании, удалении и смене статуса и периодически сверяются с базой.
+ * <p>
+ * Изменения, сделанные внутри транзакции, применяются после ее коммита, чтобы откат не сдвигал счетчики.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatusCounters {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final LongAdder[] counters = newCounters();
+
+    public Map<TaskStatus, Long> getCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            counts.put(status, counters[status.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    public void created(TaskStatus status, int count) {
+        afterCommit(() -> counters[status.ordinal()].add(count));
+    }
+
+    public void deleted(TaskStatus status) {
+        afterCommit(() -> counters[status.ordinal()].decrement());
+    }
+
+    public void moved(TaskStatus from, TaskStatus to) {
+        moved(from, to, 1);
+    }
+
+    public void moved(TaskStatus from, TaskStatus to, int count) {
+        afterCommit(() -> {
+            counters[from.ordinal()].add(-count);
+            counters[to.ordinal()].add(count);
+        });
+    }
+
+    /**
+     * Сверяет счетчики с базой. Изменения, зафиксированные между запросом и обновлением счетчика,
+     * могут дать временное расхождение, которое исправит следующая сверка.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${task.counters.reconcile-interval:5m}",
+            initialDelayString = "${task.counters.reconcile-interval:5m}")
+    public void reconcile() {
+        long[] actual = new long[STATUSES.length];
+        taskRepository.countByStatus().forEach(view -> add(actual, view));
+        archivedTaskRepository.countByStatus().forEach(view -> add(actual, view));
+
+        for (TaskStatus status : STATUSES) {
+            LongAdder counter = counters[status.ordinal()];
+            long drift = actual[status.ordinal()] - counter.sum();
+            if (drift != 0) {
+                counter.add(drift);
+                log.info("Счетчик задач со статусом {} исправлен на {}", status, drift);
+            }
+        }
+    }
+
+    private void add(long[] actual, TaskRepository.StatusCountView view) {
+        TaskStatus.fromString(view.getStatus())
+                .ifPresent(status -> actual[status.ordinal()] += view.getCount());
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[STATUSES.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -8,32 +8,66 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
 
+/**
+ * Матрица переходов между статусами, собранная при старте из стратегий: для каждого исходного
+ * статуса хранится битовая маска допустимых целевых статусов по их ordinal. Проверка перехода,
+ * список доступных переходов и признак финального статуса не выделяют память.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskStatusManager {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
 
     private final List<TaskStatusStrategy> strategies;
-    private Map<TaskStatus, TaskStatusStrategy> strategyMap;
+    private final TaskStatusCounters statusCounters;
+    private final Map<TaskStatus, TaskStatusStrategy> strategyMap = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskStatus, List<TaskStatus>> availableTransitions = new EnumMap<>(TaskStatus.class);
+    private final int[] transitionMatrix = new int[STATUSES.length];
+    private final boolean[] finalStatuses = new boolean[STATUSES.length];
+    private final boolean[] targetsWithHooks = new boolean[STATUSES.length];
 
     @PostConstruct
     public void init() {
-        strategyMap = strategies.stream()
-                .collect(Collectors.toMap(
-                        TaskStatusStrategy::getStatus,
-                        Function.identity()
-                ));
+        if (STATUSES.length > Integer.SIZE) {
+            throw new IllegalStateException("Матрица переходов поддерживает не более " + Integer.SIZE + " статусов");
+        }
+
+        for (TaskStatusStrategy strategy : strategies) {
+            if (strategyMap.put(strategy.getStatus(), strategy) != null) {
+                throw new IllegalStateException("Для статуса " + strategy.getStatus() + " зарегистрировано несколько стратегий");
+            }
+        }
+
+        for (TaskStatus status : STATUSES) {
+            TaskStatusStrategy strategy = strategyMap.get(status);
+            if (strategy == null) {
+                throw new IllegalStateException("Стратегия для статуса " + status + " не найдена");
+            }
+
+            int mask = 0;
+            for (TaskStatus target : strategy.getAllowedTransitions()) {
+                mask |= 1 << target.ordinal();
+            }
+            transitionMatrix[status.ordinal()] = mask;
+            finalStatuses[status.ordinal()] = strategy.isFinal();
+            availableTransitions.put(status, List.copyOf(strategy.getAllowedTransitions()));
+            log.debug("Зарегистрирована стратегия для статуса: {}", status);
+        }
+
+        for (TaskStatus target : STATUSES) {
+            boolean hooks = strategyMap.get(target).requiresEntityHooks();
+            for (TaskStatus source : STATUSES) {
+                hooks |= canTransition(source, target) && strategyMap.get(source).requiresEntityHooks();
+            }
+            targetsWithHooks[target.ordinal()] = hooks;
+        }
 
         log.info("Инициализирован TaskStatusManager с {} стратегиями", strategies.size());
-        strategyMap.keySet().forEach(status ->
-                log.debug("Зарегистрирована стратегия для статуса: {}", status)
-        );
     }
 
     public TaskStatusStrategy getStrategy(TaskStatus status) {
@@ -44,41 +78,42 @@ public class TaskStatusManager {
         return strategy;
     }
 
-
     public boolean canTransition(TaskStatus fromStatus, TaskStatus toStatus) {
-        TaskStatusStrategy strategy = getStrategy(fromStatus);
-        return strategy.canTransitionTo(toStatus);
+        return (transitionMatrix[fromStatus.ordinal()] & (1 << toStatus.ordinal())) != 0;
     }
 
-
     public void executeTransition(Task task, TaskStatus newStatus) {
         TaskStatus currentStatus = TaskStatus.valueOf(task.getStatus());
+        if (!canTransition(currentStatus, newStatus)) {
+            throw new IllegalStateException(isFinalStatus(currentStatus)
+                    ? String.format("Задача в статусе '%s' находится в финальном состоянии и не может быть изменена",
+                            currentStatus.getDescription())
+                    : String.format("Невозможно изменить статус с %s на %s",
+                            currentStatus.getDescription(), newStatus.getDescription()));
+        }
 
-        log.info("Выполнение перехода задачи {} с {} на {}",
-                task.getId(), currentStatus, newStatus);
-
-        TaskStatusStrategy currentStrategy = getStrategy(currentStatus);
-
-        currentStrategy.executeTransition(task, newStatus);
-
-        TaskStatusStrategy newStrategy = getStrategy(newStatus);
-        newStrategy.onEnter(task);
+        log.info("Выполнение перехода задачи {} с {} на {}", task.getId(), currentStatus, newStatus);
 
-        log.info("Переход задачи {} завершен успешно", task.getId());
+        strategyMap.get(currentStatus).onExit(task);
+        task.setStatus(newStatus.name());
+        strategyMap.get(newStatus).onEnter(task);
+        statusCounters.moved(currentStatus, newStatus);
     }
 
-
     public String getTransitionDescription(TaskStatus status) {
         return getStrategy(status).getTransitionDescription();
     }
 
     public List<TaskStatus> getAvailableTransitions(TaskStatus status) {
-        return getStrategy(status).getAllowedTransitions()
-                .stream()
-                .toList();
+        return availableTransitions.get(status);
+    }
+
+    // Переход в статус требует хуков, если их требует сам статус или любой статус, из которого в него можно перейти
+    public boolean hasTransitionHooks(TaskStatus toStatus) {
+        return targetsWithHooks[toStatus.ordinal()];
     }
 
     public boolean isFinalStatus(TaskStatus status) {
-        return getStrategy(status).isFinal();
+        return finalStatuses[status.ordinal()];
     }
-}
\ No newline at end of file
+}
@@ -3,19 +3,23 @@ package kg.manurov.tasktracker.service;
 import kg.manurov.tasktracker.domain.dto.RegistrationDto;
 import kg.manurov.tasktracker.domain.models.User;
 import kg.manurov.tasktracker.repositories.UserRepository;
+import kg.manurov.tasktracker.security.AuthenticationCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
 
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
 
 
     public User create(RegistrationDto registrationDto) {
@@ -41,4 +45,27 @@ public class UserService implements UserDetailsService {
         return repository.existsByEmail(email);
     }
 
+    public void changePassword(String email, String currentPassword, String newPassword) {
+        User user = repository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден с email: " + email));
+        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+            throw new IllegalArgumentException("Текущий пароль указан неверно");
+        }
+
+        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        repository.save(user);
+        authenticationCache.invalidate(email);
+        log.info("Пользователь {} сменил пароль", email);
+    }
+
+    public void setEnabled(Long id, boolean enabled) {
+        User user = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден с ID: " + id));
+
+        user.setEnabled(enabled);
+        repository.save(user);
+        authenticationCache.invalidate(user.getEmail());
+        log.info("Пользователь {} {}", user.getEmail(), enabled ? "включен" : "отключен");
+    }
+
 }
\ No newline at end of file
@@ -3,18 +3,20 @@ package kg.manurov.tasktracker.strategy;
 import kg.manurov.tasktracker.domain.enums.TaskStatus;
 import kg.manurov.tasktracker.domain.models.Task;
 
+import java.util.List;
 import java.util.Set;
 
+/**
+ * Описание статуса и хуки на вход и выход из него. Разрешенные переходы читаются один раз
+ * при старте и компилируются в матрицу переходов {@link kg.manurov.tasktracker.service.TaskStatusManager},
+ * сами переходы выполняет менеджер.
+ */
 public interface TaskStatusStrategy {
 
     TaskStatus getStatus();
 
     Set<TaskStatus> getAllowedTransitions();
 
-    boolean canTransitionTo(TaskStatus newStatus);
-
-    void executeTransition(Task task, TaskStatus newStatus);
-
     String getStatusDescription();
 
     String getTransitionDescription();
@@ -23,7 +25,18 @@ public interface TaskStatusStrategy {
         return getAllowedTransitions().isEmpty();
     }
 
+    // Должна возвращать true, если хуки меняют задачу или обращаются к внешним системам: тогда массовый
+    // переход загружает сущности и вызывает хуки, иначе он выполняется одним UPDATE без загрузки задач
+    default boolean requiresEntityHooks() {
+        return true;
+    }
+
     default void onEnter(Task task) {}
 
+    // Пакетный вариант для массовых операций; стратегия может переопределить его, чтобы не работать с задачами по одной
+    default void onEnterAll(List<Task> tasks) {
+        tasks.forEach(this::onEnter);
+    }
+
     default void onExit(Task task) {}
 }
@@ -6,11 +6,15 @@ import kg.manurov.tasktracker.strategy.TaskStatusStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 
 @Slf4j
 @Component
 public class CompletedStatusStrategy implements TaskStatusStrategy {
+    private static final Set<TaskStatus> ALLOWED_TRANSITIONS =
+            Collections.unmodifiableSet(EnumSet.noneOf(TaskStatus.class));
 
     @Override
     public TaskStatus getStatus() {
@@ -19,19 +23,7 @@ public class CompletedStatusStrategy implements TaskStatusStrategy {
 
     @Override
     public Set<TaskStatus> getAllowedTransitions() {
-        return Set.of();
-    }
-
-    @Override
-    public boolean canTransitionTo(TaskStatus newStatus) {
-        return false;
-    }
-
-    @Override
-    public void executeTransition(Task task, TaskStatus newStatus) {
-        throw new IllegalStateException(
-                "Завершенную задачу нельзя изменить. Задача находится в финальном состоянии."
-        );
+        return ALLOWED_TRANSITIONS;
     }
 
     @Override
@@ -49,6 +41,11 @@ public class CompletedStatusStrategy implements TaskStatusStrategy {
         return true;
     }
 
+    @Override
+    public boolean requiresEntityHooks() {
+        return false;
+    }
+
     @Override
     public void onEnter(Task task) {
         log.info("Задача {} успешно завершена и зафиксирована", task.getId());
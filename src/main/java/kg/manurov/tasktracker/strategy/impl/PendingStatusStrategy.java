@@ -6,11 +6,16 @@ import kg.manurov.tasktracker.strategy.TaskStatusStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 @Slf4j
 @Component
 public class PendingStatusStrategy implements TaskStatusStrategy {
+    private static final Set<TaskStatus> ALLOWED_TRANSITIONS =
+            Collections.unmodifiableSet(EnumSet.of(TaskStatus.IN_PROGRESS, TaskStatus.CANCELLED));
 
     @Override
     public TaskStatus getStatus() {
@@ -19,37 +24,7 @@ public class PendingStatusStrategy implements TaskStatusStrategy {
 
     @Override
     public Set<TaskStatus> getAllowedTransitions() {
-        return Set.of(TaskStatus.IN_PROGRESS, TaskStatus.CANCELLED);
-    }
-
-    @Override
-    public boolean canTransitionTo(TaskStatus newStatus) {
-        return getAllowedTransitions().contains(newStatus);
-    }
-
-    @Override
-    public void executeTransition(Task task, TaskStatus newStatus) {
-        if (!canTransitionTo(newStatus)) {
-            throw new IllegalStateException(
-                    String.format("Невозможно изменить статус с %s на %s",
-                            getStatusDescription(), newStatus.getDescription())
-            );
-        }
-
-        log.info("Переход задачи {} из статуса PENDING в {}", task.getId(), newStatus);
-
-        onExit(task);
-
-        task.setStatus(newStatus.name());
-
-        switch (newStatus) {
-            case IN_PROGRESS -> {
-                log.info("Задача {} начата в работу", task.getId());
-            }
-            case CANCELLED -> {
-                log.info("Задача {} отменена из очереди", task.getId());
-            }
-        }
+        return ALLOWED_TRANSITIONS;
     }
 
     @Override
@@ -62,11 +37,21 @@ public class PendingStatusStrategy implements TaskStatusStrategy {
         return "Из статуса 'В ожидании' можно перейти в: 'В процессе', 'Отменена'";
     }
 
+    @Override
+    public boolean requiresEntityHooks() {
+        return false;
+    }
+
     @Override
     public void onEnter(Task task) {
         log.debug("Задача {} помещена в очередь ожидания", task.getId());
     }
 
+    @Override
+    public void onEnterAll(List<Task> tasks) {
+        log.debug("В очередь ожидания помещено {} задач", tasks.size());
+    }
+
     @Override
     public void onExit(Task task) {
         log.debug("Задача {} покидает очередь ожидания", task.getId());
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset abu:recreate-tasks-created-at-index
+-- comment: Индекс по (created_at, id) для курсорной пагинации задач
+DROP INDEX IF EXISTS idx_tasks_created_at;
+CREATE INDEX idx_tasks_created_at ON tasks (created_at DESC, id DESC);
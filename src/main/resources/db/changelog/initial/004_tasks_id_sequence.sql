@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset abu:create-tasks-id-sequence
+-- comment: Последовательность для пакетной вставки задач: Hibernate резервирует по 50 идентификаторов за одно обращение
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE tasks_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tasks);
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
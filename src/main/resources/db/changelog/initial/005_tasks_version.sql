@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset abu:add-tasks-version
+-- comment: Версия задачи для оптимистичной блокировки и условных запросов (ETag / If-Match)
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
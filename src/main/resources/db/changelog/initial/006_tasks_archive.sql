@@ -0,0 +1,24 @@
+-- liquibase formatted sql
+
+-- changeset abu:create-tasks-archive-table
+-- comment: Архив завершенных и отмененных задач, чтобы рабочая таблица tasks оставалась небольшой
+CREATE TABLE IF NOT EXISTS tasks_archive
+(
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(50)  NOT NULL,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP    NOT NULL,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- changeset abu:create-tasks-archive-indexes
+-- comment: Индексы архива для чтения по статусу и по дате создания
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_status ON tasks_archive (status);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_created_at ON tasks_archive (created_at DESC, id DESC);
+
+-- changeset abu:create-tasks-status-updated-at-index
+-- comment: Индекс для поиска финальных задач, которые пора перенести в архив
+CREATE INDEX IF NOT EXISTS idx_tasks_status_updated_at ON tasks (status, updated_at);
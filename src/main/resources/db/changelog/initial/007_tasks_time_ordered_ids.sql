@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset abu:drop-tasks-id-sequence
+-- comment: ID задач генерируются в приложении (время, номер узла, счетчик), последовательность больше не нужна
+DROP SEQUENCE IF EXISTS tasks_seq;
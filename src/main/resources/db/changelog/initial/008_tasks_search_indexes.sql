@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset abu:create-tasks-search-indexes
+-- comment: Составные индексы для поиска задач по статусу и периодам; idx_tasks_status покрывается их префиксом
+CREATE INDEX IF NOT EXISTS idx_tasks_status_created_at ON tasks (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at ON tasks (updated_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_tasks_status;
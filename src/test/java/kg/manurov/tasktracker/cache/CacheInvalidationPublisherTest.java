@@ -0,0 +1,36 @@
+package kg.manurov.tasktracker.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationPublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void publishEvict_ProbeFailsWithNonRedisError_ReopensBreaker() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Redis", 1, Duration.ZERO);
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(redisTemplate, "invalidation", circuitBreaker);
+        circuitBreaker.onFailure();
+        doThrow(new IllegalArgumentException("Сбой сериализации"))
+                .doReturn(1L)
+                .when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        publisher.publishEvict("tasks", "1");
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        publisher.publishEvict("tasks", "1");
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,81 @@
+package kg.manurov.tasktracker.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    private static final String LOCK_KEY = "task-tracker:idempotency:create-task:key-1:lock";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void unlock_ReleasesOnlyWithOwnAcquisitionToken() {
+        store = store(Duration.ofSeconds(30));
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        String first = store.tryLock("create-task:key-1");
+        String second = store.tryLock("create-task:key-1");
+        store.unlock("create-task:key-1", first);
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+        verify(valueOperations).setIfAbsent(LOCK_KEY, first, Duration.ofSeconds(30));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), eq(first));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void tryLock_HeldByAnotherRequest_ReturnsNull() {
+        store = store(Duration.ofSeconds(30));
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertNull(store.tryLock("create-task:key-1"));
+    }
+
+    @Test
+    void tryLock_WhileHeld_RenewsLockWithOwnToken() {
+        store = store(Duration.ofMillis(30));
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        String token = store.tryLock("create-task:key-1");
+
+        verify(redisTemplate, timeout(1000).atLeast(2))
+                .execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), eq(token), eq("30"));
+        store.unlock("create-task:key-1", token);
+    }
+
+    private IdempotencyStore store(Duration lockTtl) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Redis", 3, Duration.ofSeconds(30));
+        return new IdempotencyStore(redisTemplate, circuitBreaker, 100, Duration.ofHours(24), lockTtl);
+    }
+}
@@ -0,0 +1,83 @@
+package kg.manurov.tasktracker.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientCacheTest {
+
+    @Mock
+    private Cache delegate;
+
+    @Test
+    void get_RedisFailuresReachThreshold_OpensBreakerAndSkipsRedis() {
+        CircuitBreaker breaker = new CircuitBreaker("Redis", 2, Duration.ofMinutes(1));
+        ResilientCache cache = new ResilientCache(delegate, breaker);
+        when(delegate.get(1L)).thenThrow(new RedisConnectionFailureException("нет соединения"));
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(1L));
+        assertNull(cache.get(1L));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        verify(delegate, times(2)).get(1L);
+    }
+
+    @Test
+    void get_WithLoader_BreakerOpen_LoadsFromSource() {
+        CircuitBreaker breaker = new CircuitBreaker("Redis", 1, Duration.ofMinutes(1));
+        breaker.onFailure();
+        ResilientCache cache = new ResilientCache(delegate, breaker);
+
+        assertEquals("из базы", cache.get(1L, () -> "из базы"));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void evict_MissedDuringOutage_ClearsCacheOnSuccessfulProbe() {
+        CircuitBreaker breaker = new CircuitBreaker("Redis", 1, Duration.ZERO);
+        ResilientCache cache = new ResilientCache(delegate, breaker);
+        doThrow(new RedisConnectionFailureException("нет соединения")).when(delegate).evict(1L);
+
+        cache.evict(1L);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertNull(cache.get(2L));
+
+        verify(delegate).clear();
+        verify(delegate).get(2L);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpen_ProbeFails_ReopensBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("Redis", 1, Duration.ZERO);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void get_NonConnectionError_IsRethrownAndKeepsBreakerClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("Redis", 1, Duration.ofMinutes(1));
+        ResilientCache cache = new ResilientCache(delegate, breaker);
+        when(delegate.get(1L)).thenThrow(new SerializationException("битое значение"));
+
+        assertThrows(SerializationException.class, () -> cache.get(1L));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
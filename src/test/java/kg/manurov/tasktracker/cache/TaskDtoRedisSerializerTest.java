@@ -0,0 +1,157 @@
+package kg.manurov.tasktracker.cache;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDtoRedisSerializerTest {
+
+    private final TaskDtoRedisSerializer serializer = new TaskDtoRedisSerializer(1024);
+
+    @Test
+    void roundTrip_SingleTask_PreservesAllFields() {
+        TaskDto task = task(42L, "PENDING");
+
+        byte[] bytes = serializer.serialize(task);
+        TaskDto result = (TaskDto) serializer.deserialize(bytes);
+
+        assertEquals(TaskDtoRedisSerializer.MAGIC, bytes[0]);
+        assertTaskEquals(task, result);
+    }
+
+    @Test
+    void roundTrip_TaskWithNullFields_KeepsNulls() {
+        TaskDto task = new TaskDto().setTitle("Без даты");
+
+        TaskDto result = (TaskDto) serializer.deserialize(serializer.serialize(task));
+
+        assertNull(result.getId());
+        assertEquals("Без даты", result.getTitle());
+        assertNull(result.getDescription());
+        assertNull(result.getStatus());
+        assertNull(result.getCreatedAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void roundTrip_LargeList_IsCompressedAndSmallerThanJdk() {
+        List<TaskDto> tasks = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            tasks.add(task(i, i % 2 == 0 ? "IN_PROGRESS" : "COMPLETED"));
+        }
+
+        byte[] bytes = serializer.serialize(tasks);
+        List<TaskDto> result = (List<TaskDto>) serializer.deserialize(bytes);
+
+        assertEquals(1, bytes[2] & 1);
+        assertTrue(bytes.length < new JdkSerializationRedisSerializer().serialize(tasks).length);
+        assertEquals(200, result.size());
+        assertTaskEquals(tasks.get(199), result.get(199));
+    }
+
+    @Test
+    void roundTrip_CachedValue_KeepsLoadMetadata() {
+        CachedValue entry = new CachedValue(List.of(task(1L, "PENDING")), 1_710_000_000_000L, 35);
+
+        CachedValue result = (CachedValue) serializer.deserialize(serializer.serialize(entry));
+
+        assertEquals(entry.loadedAt(), result.loadedAt());
+        assertEquals(entry.computeMillis(), result.computeMillis());
+        assertTaskEquals(task(1L, "PENDING"), ((List<?>) result.value()).stream()
+                .map(TaskDto.class::cast).findFirst().orElseThrow());
+    }
+
+    @Test
+    void deserialize_LegacyJdkEntry_ReadsThroughFallback() {
+        TaskDto task = task(7L, "COMPLETED");
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(task);
+
+        TaskDto result = (TaskDto) serializer.deserialize(legacy);
+
+        assertTaskEquals(task, result);
+    }
+
+    @Test
+    void deserialize_PreviousFormatVersion_ReadsTaskWithoutVersion() {
+        TaskDto task = task(5L, "IN_PROGRESS").setVersion(null);
+        byte[] bytes = serializer.serialize(task);
+        bytes[1] = (byte) (TaskDtoRedisSerializer.VERSION - 1);
+
+        assertTaskEquals(task, (TaskDto) serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_UnknownFormatVersion_ReturnsNull() {
+        byte[] bytes = serializer.serialize(task(1L, "PENDING"));
+        bytes[1] = (byte) (TaskDtoRedisSerializer.VERSION + 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_TruncatedCompressedValue_ThrowsSerializationException() {
+        byte[] bytes = serializer.serialize(largeList());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThrows(SerializationException.class, () -> serializer.deserialize(truncated)));
+    }
+
+    @Test
+    void deserialize_CompressedLengthOutOfRange_ThrowsSerializationException() {
+        byte[] header = Arrays.copyOf(serializer.serialize(largeList()), 4);
+
+        // Varint-кодировки Long.MAX_VALUE и -1
+        assertThrows(SerializationException.class, () -> serializer.deserialize(concat(header,
+                new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, 0x7F})));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(concat(header,
+                new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, 0x01})));
+    }
+
+    @Test
+    void roundTrip_UnsupportedType_UsesJdkSerialization() {
+        Map<String, Long> value = Map.of("count", 3L);
+
+        assertEquals(value, serializer.deserialize(serializer.serialize(value)));
+    }
+
+    private List<TaskDto> largeList() {
+        List<TaskDto> tasks = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            tasks.add(task(i, "PENDING"));
+        }
+        return tasks;
+    }
+
+    private byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private TaskDto task(Long id, String status) {
+        return new TaskDto(id, "Задача " + id, "Описание задачи " + id, status,
+                LocalDateTime.of(2024, 3, 15, 10, 30, 15, 123_456_789),
+                LocalDateTime.of(2024, 3, 16, 8, 0), 3L);
+    }
+
+    private void assertTaskEquals(TaskDto expected, TaskDto actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+}
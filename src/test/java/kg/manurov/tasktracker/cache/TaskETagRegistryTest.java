@@ -0,0 +1,94 @@
+package kg.manurov.tasktracker.cache;
+
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.TaskETag;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskETagRegistryTest {
+
+    private TaskETagRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskETagRegistry(100);
+        registry.setLocalCacheEnabled(() -> true);
+    }
+
+    @Test
+    void allTasksETag_ChangesOnlyAfterInvalidation() {
+        String before = registry.allTasksETag();
+
+        assertEquals(before, registry.allTasksETag());
+        registry.invalidate(CacheNames.TASKS, CacheNames.ALL_TASKS_KEY);
+
+        assertNotEquals(before, registry.allTasksETag());
+    }
+
+    @Test
+    void statusETag_InvalidationOfOtherStatus_KeepsETag() {
+        String pending = registry.statusETag(TaskStatus.PENDING, false);
+
+        registry.evictLocal(CacheNames.TASKS_BY_STATUS, TaskStatus.COMPLETED.name());
+
+        assertEquals(pending, registry.statusETag(TaskStatus.PENDING, false));
+        assertNotEquals(pending, registry.statusETag(TaskStatus.PENDING, true));
+    }
+
+    @Test
+    void statusETag_ClearLocal_ChangesAllStatuses() {
+        String pending = registry.statusETag(TaskStatus.PENDING, false);
+        String completed = registry.statusETag(TaskStatus.COMPLETED, false);
+
+        registry.clearLocal(CacheNames.TASKS_BY_STATUS);
+
+        assertNotEquals(pending, registry.statusETag(TaskStatus.PENDING, false));
+        assertNotEquals(completed, registry.statusETag(TaskStatus.COMPLETED, false));
+    }
+
+    @Test
+    void taskETag_RecordedVersion_ReturnedUntilInvalidated() {
+        registry.recordTask(1L, 3L, registry.stamp());
+
+        assertEquals(TaskETag.of(3L), registry.taskETag(1L));
+
+        registry.evictLocal(CacheNames.TASK, "1");
+
+        assertNull(registry.taskETag(1L));
+    }
+
+    @Test
+    void recordTask_InvalidatedWhileLoading_NotRecorded() {
+        long stamp = registry.stamp();
+        registry.evictLocal(CacheNames.TASK, "1");
+
+        registry.recordTask(1L, 3L, stamp);
+
+        assertNull(registry.taskETag(1L));
+    }
+
+    @Test
+    void etags_InvalidationMessagesNotDelivered_NotIssued() {
+        registry.recordTask(1L, 3L, registry.stamp());
+        registry.setLocalCacheEnabled(() -> false);
+
+        assertNull(registry.allTasksETag());
+        assertNull(registry.statusETag(TaskStatus.PENDING, false));
+        assertNull(registry.taskETag(1L));
+    }
+
+    @Test
+    void matches_HandlesListsWeakTagsAndWildcard() {
+        String eTag = TaskETag.of(5L);
+
+        assertTrue(TaskETag.matches(eTag, eTag));
+        assertTrue(TaskETag.matches("\"4\", W/" + eTag, eTag));
+        assertTrue(TaskETag.matches("*", eTag));
+        assertFalse(TaskETag.matches("\"4\"", eTag));
+        assertFalse(TaskETag.matches(null, eTag));
+        assertFalse(TaskETag.matches("*", null));
+    }
+}
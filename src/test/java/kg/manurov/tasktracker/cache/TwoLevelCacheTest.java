@@ -0,0 +1,179 @@
+package kg.manurov.tasktracker.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCache remoteCache;
+    private TwoLevelCache cache;
+    private final AtomicBoolean localEnabled = new AtomicBoolean(true);
+    private final CacheRefreshPolicy refreshPolicy =
+            new CacheRefreshPolicy(Duration.ofMinutes(30), Duration.ofMinutes(1), 0);
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = new ConcurrentMapCache("tasks");
+        cache = new TwoLevelCache("tasks", Caffeine.newBuilder().maximumSize(10).build(),
+                remoteCache, publisher, localEnabled::get, refreshPolicy, Runnable::run);
+    }
+
+    @Test
+    void get_AfterRemoteHit_ServesFromLocalCache() {
+        remoteCache.put(1L, "задача");
+
+        assertEquals("задача", cache.get(1L, String.class));
+        remoteCache.evict(1L);
+
+        assertEquals("задача", cache.get(1L, String.class));
+    }
+
+    @Test
+    void get_LocalCacheDisabled_AlwaysReadsRemote() {
+        localEnabled.set(false);
+        remoteCache.put(1L, "задача");
+
+        assertEquals("задача", cache.get(1L, String.class));
+        remoteCache.evict(1L);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void get_WithLoader_LoadsOnceAndDoesNotPublish() {
+        assertEquals("загружено", cache.get(1L, () -> "загружено"));
+        assertEquals("загружено", cache.get(1L, () -> fail("Повторная загрузка")));
+
+        assertEquals("загружено", ((CachedValue) remoteCache.get(1L).get()).value());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void get_WithLoader_ConcurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> cache.get("all_tasks", () -> {
+                    loads.incrementAndGet();
+                    loaderStarted.countDown();
+                    releaseLoader.await();
+                    return "список";
+                })));
+            }
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("список", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_WithLoader_ExpiredEntryInStaleWindow_ServesStaleAndRefreshes() {
+        long expiredAt = System.currentTimeMillis() - refreshPolicy.ttl().toMillis() - 1000;
+        remoteCache.put(1L, new CachedValue("старое", expiredAt, 5));
+
+        assertEquals("старое", cache.get(1L, () -> "новое"));
+
+        assertEquals("новое", cache.get(1L, () -> fail("Повторная загрузка")));
+    }
+
+    @Test
+    void get_WithLoader_EntryPastStaleWindow_LoadsSynchronously() {
+        long expiredAt = System.currentTimeMillis() - refreshPolicy.storeTtl().toMillis() - 1000;
+        remoteCache.put(1L, new CachedValue("старое", expiredAt, 5));
+
+        assertEquals("новое", cache.get(1L, () -> "новое"));
+    }
+
+    @Test
+    void get_WithLoader_EvictedDuringLoad_DoesNotStoreStaleValue() {
+        assertEquals("загружено", cache.get(1L, () -> {
+            cache.evict(1L);
+            return "загружено";
+        }));
+
+        assertNull(cache.get(1L));
+        assertNull(remoteCache.get(1L));
+    }
+
+    @Test
+    void evict_RemovesBothLevelsAndPublishesInvalidation() {
+        remoteCache.put(1L, "задача");
+        cache.get(1L);
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertNull(remoteCache.get(1L));
+        verify(publisher).publishEvict("tasks", "1");
+    }
+
+    @Test
+    void listener_MessageFromOtherNode_EvictsLocalEntry() {
+        ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager("tasks");
+        TwoLevelCacheManager manager =
+                new TwoLevelCacheManager(remoteManager, publisher, 10, Duration.ofMinutes(1), refreshPolicy, 1);
+        manager.setLocalCacheEnabled(() -> true);
+        CacheInvalidationListener listener = new CacheInvalidationListener(List.of(manager), "этот-узел");
+        Cache managed = manager.getCache("tasks");
+        managed.put(1L, "задача");
+        remoteManager.getCache("tasks").evict(1L);
+
+        listener.onMessage(message(new CacheInvalidationMessage("этот-узел", "tasks", "1")), null);
+        assertEquals("задача", managed.get(1L, String.class));
+
+        listener.onMessage(message(new CacheInvalidationMessage("другой-узел", "tasks", "1")), null);
+        assertNull(managed.get(1L));
+    }
+
+    @Test
+    void message_SerializeAndParse_RoundTrip() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage("узел", "tasksCache", "all_tasks");
+
+        assertEquals(message, CacheInvalidationMessage.parse(message.serialize()));
+        assertTrue(CacheInvalidationMessage.parse(
+                new CacheInvalidationMessage("узел", "tasksCache", null).serialize()).isClear());
+    }
+
+    private DefaultMessage message(CacheInvalidationMessage invalidation) {
+        return new DefaultMessage("channel".getBytes(StandardCharsets.UTF_8),
+                invalidation.serialize().getBytes(StandardCharsets.UTF_8));
+    }
+}
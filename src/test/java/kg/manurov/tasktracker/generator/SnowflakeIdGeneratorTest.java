@@ -0,0 +1,136 @@
+package kg.manurov.tasktracker.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000L;
+
+    @Test
+    void nextId_EncodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertEquals(SnowflakeIdGenerator.EPOCH.plusMillis(1_000_000L), SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(7, SnowflakeIdGenerator.nodeIdOf(id));
+    }
+
+    @Test
+    void nextId_CurrentTime_FitsJavaScriptSafeInteger() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+
+        long id = generator.nextId();
+
+        assertTrue(id <= SnowflakeIdGenerator.MAX_SAFE_ID);
+        assertEquals(id, (long) (double) id);
+    }
+
+    @Test
+    void nextId_LastMillisecondOfLayout_FitsJavaScriptSafeInteger() {
+        long lastMillisecond = SnowflakeIdGenerator.EPOCH.toEpochMilli() + (1L << 41) - 1;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, () -> lastMillisecond);
+
+        long last = 0;
+        for (int i = 0; i < 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+            last = generator.nextId();
+        }
+
+        assertEquals(SnowflakeIdGenerator.MAX_SAFE_ID, last);
+    }
+
+    @Test
+    void nextId_SameMillisecond_IncreasesSequence() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void nextId_SequenceExhausted_MovesToNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i <= 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        assertEquals(SnowflakeIdGenerator.EPOCH.plusMillis(1_000_001L), SnowflakeIdGenerator.timestampOf(last));
+        assertEquals(1, SnowflakeIdGenerator.nodeIdOf(last));
+    }
+
+    @Test
+    void nextId_ClockMovesBackwards_KeepsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_DifferentNodes_DoNotCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> NOW);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> NOW);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+
+        assertEquals(2000, ids.size());
+    }
+
+    @Test
+    void nextId_ConcurrentCalls_AreUnique() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
@@ -1,17 +1,24 @@
 package kg.manurov.tasktracker.repositories;
 
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.dto.TaskSearchCriteria;
+import kg.manurov.tasktracker.domain.enums.TaskSortKey;
 import kg.manurov.tasktracker.domain.enums.TaskStatus;
 import kg.manurov.tasktracker.domain.models.Task;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,7 +156,7 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void findAllByOrderByCreatedAtDesc_MultiipleTasks_ReturnsTasksInDescendingOrder() {
+    void findAllDtos_MultiipleTasks_ReturnsTasksInDescendingOrder() {
         Task firstTask = entityManager.persistAndFlush(testTask1);
 
         try {
@@ -168,7 +175,7 @@ class TaskRepositoryTest {
 
         Task thirdTask = entityManager.persistAndFlush(testTask3);
 
-        List<Task> orderedTasks = taskRepository.findAllByOrderByCreatedAtDesc();
+        List<TaskDto> orderedTasks = taskRepository.findAllDtos();
 
         assertEquals(3, orderedTasks.size());
 
@@ -179,7 +186,7 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void findByStatus_ExistingStatus_ReturnsMatchingTasks() {
+    void findDtosByStatus_ExistingStatus_ReturnsMatchingTasks() {
         entityManager.persistAndFlush(testTask1); // PENDING
         entityManager.persistAndFlush(testTask2); // IN_PROGRESS
         entityManager.persistAndFlush(testTask3); // COMPLETED
@@ -187,9 +194,9 @@ class TaskRepositoryTest {
         Task anotherPendingTask = createTask("Четвертая задача", "Описание четвертой задачи", TaskStatus.PENDING);
         entityManager.persistAndFlush(anotherPendingTask);
 
-        List<Task> pendingTasks = taskRepository.findByStatus(TaskStatus.PENDING.name());
-        List<Task> inProgressTasks = taskRepository.findByStatus(TaskStatus.IN_PROGRESS.name());
-        List<Task> completedTasks = taskRepository.findByStatus(TaskStatus.COMPLETED.name());
+        List<TaskDto> pendingTasks = taskRepository.findDtosByStatus(TaskStatus.PENDING.name());
+        List<TaskDto> inProgressTasks = taskRepository.findDtosByStatus(TaskStatus.IN_PROGRESS.name());
+        List<TaskDto> completedTasks = taskRepository.findDtosByStatus(TaskStatus.COMPLETED.name());
 
         assertEquals(2, pendingTasks.size());
         assertEquals(1, inProgressTasks.size());
@@ -201,19 +208,19 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void findByStatus_NonExistingStatus_ReturnsEmptyList() {
+    void findDtosByStatus_NonExistingStatus_ReturnsEmptyList() {
 
         entityManager.persistAndFlush(testTask1);
         entityManager.persistAndFlush(testTask2);
 
-        List<Task> cancelledTasks = taskRepository.findByStatus(TaskStatus.CANCELLED.name());
+        List<TaskDto> cancelledTasks = taskRepository.findDtosByStatus(TaskStatus.CANCELLED.name());
 
         assertTrue(cancelledTasks.isEmpty());
     }
 
     @Test
-    void findByStatus_EmptyDatabase_ReturnsEmptyList() {
-        List<Task> tasks = taskRepository.findByStatus(TaskStatus.PENDING.name());
+    void findDtosByStatus_EmptyDatabase_ReturnsEmptyList() {
+        List<TaskDto> tasks = taskRepository.findDtosByStatus(TaskStatus.PENDING.name());
 
         assertTrue(tasks.isEmpty());
     }
@@ -288,8 +295,8 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void findAllByOrderByCreatedAtDesc_EmptyDatabase_ReturnsEmptyList() {
-        List<Task> tasks = taskRepository.findAllByOrderByCreatedAtDesc();
+    void findAllDtos_EmptyDatabase_ReturnsEmptyList() {
+        List<TaskDto> tasks = taskRepository.findAllDtos();
 
         assertNotNull(tasks);
         assertTrue(tasks.isEmpty());
@@ -313,6 +320,189 @@ class TaskRepositoryTest {
         assertEquals(longDescription, retrievedTask.get().getDescription());
     }
 
+    @Test
+    void findDtoPageAfter_SameCreatedAt_UsesIdAsTieBreaker() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Task first = entityManager.persistAndFlush(testTask1);
+        Task second = entityManager.persistAndFlush(testTask2);
+        Task third = entityManager.persistAndFlush(testTask3);
+        entityManager.getEntityManager()
+                .createQuery("update Task t set t.createdAt = :createdAt")
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+        entityManager.clear();
+
+        List<TaskDto> firstPage = taskRepository.findDtoPage(Limit.of(2));
+        TaskDto last = firstPage.get(firstPage.size() - 1);
+        List<TaskDto> secondPage = taskRepository.findDtoPageAfter(last.getCreatedAt(), last.getId(), Limit.of(2));
+
+        assertEquals(List.of(third.getId(), second.getId()), firstPage.stream().map(TaskDto::getId).toList());
+        assertEquals(List.of(first.getId()), secondPage.stream().map(TaskDto::getId).toList());
+    }
+
+    @Test
+    void findDtosByStatus_ReturnsAllFieldsWithoutManagedEntities() {
+        Task saved = entityManager.persistAndFlush(testTask1);
+        entityManager.clear();
+
+        List<TaskDto> tasks = taskRepository.findDtosByStatus(TaskStatus.PENDING.name());
+
+        assertEquals(1, tasks.size());
+        TaskDto dto = tasks.get(0);
+        assertEquals(saved.getId(), dto.getId());
+        assertEquals("Первая задача", dto.getTitle());
+        assertEquals("Описание первой задачи", dto.getDescription());
+        assertEquals(saved.getVersion(), dto.getVersion());
+        assertNotNull(dto.getCreatedAt());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void streamAllBy_MultipleTasks_StreamsAllRows() {
+        entityManager.persistAndFlush(testTask1);
+        entityManager.persistAndFlush(testTask2);
+        entityManager.persistAndFlush(testTask3);
+
+        try (Stream<Task> tasks = taskRepository.streamAllBy()) {
+            assertEquals(3, tasks.count());
+        }
+    }
+
+    @Test
+    void findSummariesByStatus_SkipsDescription() {
+        Task saved = entityManager.persistAndFlush(testTask1);
+        entityManager.clear();
+
+        List<TaskDto> summaries = taskRepository.findSummariesByStatus(TaskStatus.PENDING.name());
+
+        assertEquals(1, summaries.size());
+        assertEquals(saved.getId(), summaries.get(0).getId());
+        assertEquals("Первая задача", summaries.get(0).getTitle());
+        assertEquals(saved.getVersion(), summaries.get(0).getVersion());
+        assertNull(summaries.get(0).getDescription());
+    }
+
+    @Test
+    void findSummaryPageAfter_ReturnsSameOrderAsFullPage() {
+        entityManager.persistAndFlush(testTask1);
+        entityManager.persistAndFlush(testTask2);
+        entityManager.persistAndFlush(testTask3);
+        entityManager.clear();
+
+        List<TaskDto> full = taskRepository.findDtoPage(Limit.of(3));
+        TaskDto first = full.get(0);
+        List<TaskDto> rest = taskRepository.findSummaryPageAfter(first.getCreatedAt(), first.getId(), Limit.of(3));
+
+        assertEquals(full.subList(1, 3).stream().map(TaskDto::getId).toList(),
+                rest.stream().map(TaskDto::getId).toList());
+        rest.forEach(task -> assertNull(task.getDescription()));
+    }
+
+    @Test
+    void streamAllDtos_MultipleTasks_StreamsAllRowsInCreationOrder() {
+        entityManager.persistAndFlush(testTask1);
+        entityManager.persistAndFlush(testTask2);
+        entityManager.persistAndFlush(testTask3);
+
+        try (Stream<TaskDto> tasks = taskRepository.streamAllDtos()) {
+            assertEquals(3, tasks.map(TaskDto::getId).distinct().count());
+        }
+    }
+
+    @Test
+    void patch_MatchingVersion_UpdatesOnlyGivenFieldsAndIncrementsVersion() {
+        Task saved = entityManager.persistAndFlush(testTask1);
+        long version = saved.getVersion();
+        entityManager.clear();
+
+        int updated = taskRepository.patch(saved.getId(), version, "Новое название", null, LocalDateTime.now());
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        Task found = taskRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Новое название", found.getTitle());
+        assertEquals("Описание первой задачи", found.getDescription());
+        assertEquals(version + 1, found.getVersion());
+    }
+
+    @Test
+    void patch_StaleVersion_UpdatesNothing() {
+        Task saved = entityManager.persistAndFlush(testTask1);
+        long staleVersion = saved.getVersion() + 1;
+        entityManager.clear();
+
+        int updated = taskRepository.patch(saved.getId(), staleVersion, "Новое название", null, LocalDateTime.now());
+        entityManager.clear();
+
+        assertEquals(0, updated);
+        assertEquals("Первая задача", taskRepository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void search_StatusesAndTitlePrefix_ReturnsMatchingTasksSorted() {
+        entityManager.persist(testTask1);
+        entityManager.persist(testTask2);
+        entityManager.persist(testTask3);
+        entityManager.persist(createTask("Первая_подзадача", "Описание", TaskStatus.PENDING));
+        entityManager.flush();
+
+        TaskSearchCriteria criteria = new TaskSearchCriteria(Set.of(TaskStatus.PENDING, TaskStatus.COMPLETED),
+                null, null, null, null, "Перв", TaskSortKey.TITLE, true);
+        List<Task> result = taskRepository.search(criteria, 10);
+
+        assertEquals(List.of("Первая задача", "Первая_подзадача"), result.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void search_LikeWildcardInPrefix_MatchedLiterally() {
+        entityManager.persist(testTask1);
+        entityManager.persist(createTask("Первая_подзадача", "Описание", TaskStatus.PENDING));
+        entityManager.flush();
+
+        TaskSearchCriteria criteria = new TaskSearchCriteria(null, null, null, null, null,
+                "Первая_", TaskSortKey.CREATED_AT, false);
+        List<Task> result = taskRepository.search(criteria, 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Первая_подзадача", result.get(0).getTitle());
+    }
+
+    @Test
+    void search_CreatedRangeAndLimit_ReturnsNewestWithinRange() {
+        Task first = entityManager.persist(testTask1);
+        Task second = entityManager.persist(testTask2);
+        Task third = entityManager.persist(testTask3);
+        entityManager.flush();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        setCreatedAt(first, base);
+        setCreatedAt(second, base.plusDays(1));
+        setCreatedAt(third, base.plusDays(2));
+        entityManager.clear();
+
+        TaskSearchCriteria criteria = new TaskSearchCriteria(null, base, base.plusDays(2),
+                null, null, null, TaskSortKey.CREATED_AT, false);
+        List<Task> result = taskRepository.search(criteria, 1);
+
+        assertEquals(List.of(second.getId()), result.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void searchCriteria_EmptyRange_ThrowsIllegalArgument() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> new TaskSearchCriteria(null, now, now,
+                null, null, null, TaskSortKey.CREATED_AT, false));
+    }
+
+    // created_at не обновляется через сущность, поэтому дата выставляется запросом
+    private void setCreatedAt(Task task, LocalDateTime createdAt) {
+        entityManager.getEntityManager()
+                .createQuery("update Task t set t.createdAt = :createdAt where t.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", task.getId())
+                .executeUpdate();
+    }
+
     private Task createTask(String title, String description, TaskStatus status) {
         Task task = new Task();
         task.setTitle(title);
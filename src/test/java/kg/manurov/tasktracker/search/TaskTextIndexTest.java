@@ -0,0 +1,177 @@
+package kg.manurov.tasktracker.search;
+
+import jakarta.persistence.EntityManager;
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.dto.TaskSuggestionDto;
+import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskTextIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TaskTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskTextIndex(taskRepository, entityManager, transactionTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+    }
+
+    @Test
+    void analyze_RussianAndEnglishWordForms_GiveSameTerms() {
+        assertEquals(TextAnalyzer.analyze("задача тесты testing"), TextAnalyzer.analyze("задачами тестами tests"));
+        assertEquals(List.of(), TextAnalyzer.analyze("и в на the"));
+    }
+
+    @Test
+    void search_AllTermsRequired_MatchesWordForms() {
+        index.indexed(List.of(
+                task(1L, 0L, "Написать тесты", "Покрыть сервис задач тестами"),
+                task(2L, 0L, "Написать документацию", "Описание API"),
+                task(3L, 0L, "Исправить тест", "Падает на сервере")
+        ));
+
+        TaskTextIndex.Hits hits = index.search("тестов сервиса", 0, 10);
+
+        assertEquals(List.of(1L), hits.ids());
+        assertEquals(1, hits.total());
+    }
+
+    @Test
+    void search_TitleMatch_RankedAboveDescriptionMatch() {
+        index.indexed(List.of(
+                task(1L, 0L, "Настроить базу", "Нужен кэш для отчетов"),
+                task(2L, 0L, "Добавить кэш", "Кэширование ответов")
+        ));
+
+        assertEquals(List.of(2L, 1L), index.search("кэш", 0, 10).ids());
+    }
+
+    @Test
+    void search_Pagination_ReturnsRequestedSliceAndTotal() {
+        for (long id = 1; id <= 5; id++) {
+            index.indexed(task(id, 0L, "Отчет " + id, "Квартальный отчет"));
+        }
+
+        TaskTextIndex.Hits firstPage = index.search("отчет", 0, 2);
+        TaskTextIndex.Hits lastPage = index.search("отчет", 4, 2);
+
+        assertEquals(2, firstPage.ids().size());
+        assertEquals(1, lastPage.ids().size());
+        assertEquals(5, lastPage.total());
+    }
+
+    @Test
+    void indexed_OlderVersion_DoesNotReplaceNewer() {
+        index.indexed(task(1L, 2L, "Новое название", null));
+
+        index.indexed(task(1L, 1L, "Старое название", null));
+
+        assertEquals(List.of(1L), index.search("новое", 0, 10).ids());
+        assertEquals(0, index.search("старое", 0, 10).total());
+    }
+
+    @Test
+    void removed_Task_NotFound() {
+        index.indexed(task(1L, 0L, "Деплой приложения", null));
+
+        index.removed(List.of(1L));
+
+        assertEquals(0, index.search("деплой", 0, 10).total());
+    }
+
+    @Test
+    void evictLocal_TaskChangedOnOtherNode_ReloadedFromDatabase() {
+        index.indexed(task(1L, 0L, "Черновик", null));
+        when(taskRepository.findAllById(anyCollection())).thenReturn(List.of(task(1L, 1L, "Релиз", null)));
+
+        index.evictLocal(CacheNames.TASK, "1");
+
+        verify(taskRepository, timeout(5000)).findAllById(anyCollection());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (index.search("релиз", 0, 10).total() == 0) {
+                Thread.onSpinWait();
+            }
+        });
+        assertEquals(0, index.search("черновик", 0, 10).total());
+    }
+
+    @Test
+    void suggest_TitleStartRankedBeforeWordStart() {
+        index.indexed(List.of(
+                task(1L, 0L, "Написать тесты", null),
+                task(2L, 0L, "Тесты API", null),
+                task(3L, 0L, "Деплой", null)
+        ));
+
+        List<TaskSuggestionDto> suggestions = index.suggest("ТЕСТ", 10);
+
+        assertEquals(List.of(2L, 1L), suggestions.stream().map(TaskSuggestionDto::getId).toList());
+        assertEquals("Тесты API", suggestions.get(0).getTitle());
+    }
+
+    @Test
+    void suggest_RenamedAndRemovedTasks_ReflectedInSuggestions() {
+        index.indexed(List.of(
+                task(1L, 0L, "Черновик отчета", null),
+                task(2L, 0L, "Черновик письма", null)
+        ));
+
+        index.indexed(task(1L, 1L, "Финальный отчет", null));
+        index.removed(List.of(2L));
+
+        assertEquals(List.of(), index.suggest("черн", 10));
+        assertEquals(List.of(1L), index.suggest("фин", 10).stream().map(TaskSuggestionDto::getId).toList());
+    }
+
+    @Test
+    void suggest_LimitApplied() {
+        for (long id = 1; id <= 5; id++) {
+            index.indexed(task(id, 0L, "Задача " + id, null));
+        }
+
+        assertEquals(3, index.suggest("зад", 3).size());
+        assertThrows(IllegalArgumentException.class, () -> index.suggest("зад", 0));
+    }
+
+    @Test
+    void search_QueryWithoutWords_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("и на !", 0, 10));
+    }
+
+    private Task task(Long id, Long version, String title, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(version);
+        task.setTitle(title);
+        task.setDescription(description);
+        return task;
+    }
+}
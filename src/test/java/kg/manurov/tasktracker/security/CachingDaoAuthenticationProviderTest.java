@@ -0,0 +1,116 @@
+package kg.manurov.tasktracker.security;
+
+import kg.manurov.tasktracker.cache.CacheInvalidationPublisher;
+import kg.manurov.tasktracker.config.CacheNames;
+import kg.manurov.tasktracker.domain.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDaoAuthenticationProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+    private AuthenticationCache authenticationCache;
+    private CachingDaoAuthenticationProvider provider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(invalidationPublisher, 100, Duration.ofMinutes(1), Duration.ofMinutes(15));
+        authenticationCache.setLocalCacheEnabled(() -> true);
+        provider = new CachingDaoAuthenticationProvider(authenticationCache);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        user = User.builder()
+                .id(1L)
+                .email("user@test.com")
+                .passwordHash(passwordEncoder.encode("secret"))
+                .role("USER")
+                .enabled(true)
+                .build();
+        clearInvocations(passwordEncoder);
+    }
+
+    @Test
+    void authenticate_RepeatedWithSamePassword_SkipsDatabaseAndBcrypt() {
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        provider.authenticate(token("secret"));
+        provider.authenticate(token("secret"));
+
+        verify(userDetailsService, times(1)).loadUserByUsername("user@test.com");
+        verify(passwordEncoder, times(1)).matches(eq("secret"), anyString());
+    }
+
+    @Test
+    void authenticate_WrongPassword_IsNotCached() {
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("wrong")));
+
+        verify(passwordEncoder, atLeast(2)).matches(eq("wrong"), anyString());
+    }
+
+    @Test
+    void authenticate_AfterInvalidation_ReloadsAndVerifiesAgain() {
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(user);
+        provider.authenticate(token("secret"));
+
+        authenticationCache.invalidate("user@test.com");
+        provider.authenticate(token("secret"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@test.com");
+        verify(passwordEncoder, times(2)).matches(eq("secret"), anyString());
+        verify(invalidationPublisher).publishEvict(CacheNames.AUTHENTICATION, "user@test.com");
+    }
+
+    @Test
+    void authenticate_InvalidatedWhileLoading_DoesNotCacheStaleUser() {
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenAnswer(invocation -> {
+            authenticationCache.invalidate("user@test.com");
+            return user;
+        }).thenReturn(user);
+
+        provider.authenticate(token("secret"));
+        provider.authenticate(token("secret"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@test.com");
+        verify(passwordEncoder, times(2)).matches(eq("secret"), anyString());
+    }
+
+    @Test
+    void authenticate_CacheDisabled_AlwaysVerifies() {
+        authenticationCache.setLocalCacheEnabled(() -> false);
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        provider.authenticate(token("secret"));
+        provider.authenticate(token("secret"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@test.com");
+        verify(passwordEncoder, times(2)).matches(eq("secret"), anyString());
+    }
+
+    private UsernamePasswordAuthenticationToken token(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("user@test.com", password);
+    }
+}
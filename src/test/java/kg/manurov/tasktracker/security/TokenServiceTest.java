@@ -0,0 +1,134 @@
+package kg.manurov.tasktracker.security;
+
+import kg.manurov.tasktracker.cache.CacheInvalidationPublisher;
+import kg.manurov.tasktracker.domain.dto.TokenResponseDto;
+import kg.manurov.tasktracker.domain.models.User;
+import kg.manurov.tasktracker.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private AuthenticationCache authenticationCache;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(invalidationPublisher, 100,
+                Duration.ofMinutes(1), Duration.ofMinutes(15));
+        tokenService = new TokenService(userService, authenticationCache, SECRET,
+                Duration.ofMinutes(15), Duration.ofDays(7), false);
+        user = User.builder()
+                .id(1L)
+                .email("user@test.com")
+                .passwordHash("$2a$10$hash")
+                .role("ADMIN")
+                .enabled(true)
+                .build();
+    }
+
+    @Test
+    void verifyAccessToken_IssuedToken_ReturnsEmailAndRoles() {
+        TokenResponseDto tokens = tokenService.issue(user);
+
+        TokenService.AccessToken token = tokenService.verifyAccessToken(tokens.getAccessToken());
+
+        assertNotNull(token);
+        assertEquals("user@test.com", token.email());
+        assertEquals("ROLE_ADMIN", token.authorities().get(0).getAuthority());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void verifyAccessToken_TamperedOrForeignToken_ReturnsNull() {
+        String token = tokenService.issue(user).getAccessToken();
+        String payload = token.substring(0, token.indexOf('.'));
+        TokenService otherService = new TokenService(userService, authenticationCache,
+                Base64.getEncoder().encodeToString("другой-секрет-длиной-32-байта!!".getBytes(StandardCharsets.UTF_8)),
+                Duration.ofMinutes(15), Duration.ofDays(7), false);
+
+        assertNull(tokenService.verifyAccessToken(payload + "x" + token.substring(payload.length())));
+        assertNull(tokenService.verifyAccessToken(otherService.issue(user).getAccessToken()));
+        assertNull(tokenService.verifyAccessToken("не-токен"));
+    }
+
+    @Test
+    void verifyAccessToken_RefreshTokenOrExpired_ReturnsNull() {
+        TokenService expiring = new TokenService(userService, authenticationCache, SECRET,
+                Duration.ZERO, Duration.ofDays(7), false);
+
+        assertNull(tokenService.verifyAccessToken(tokenService.issue(user).getRefreshToken()));
+        assertNull(expiring.verifyAccessToken(expiring.issue(user).getAccessToken()));
+    }
+
+    @Test
+    void verifyAccessToken_UserInvalidatedAfterIssue_ReturnsNull() throws InterruptedException {
+        String token = tokenService.issue(user).getAccessToken();
+        Thread.sleep(2);
+
+        authenticationCache.invalidate("user@test.com");
+
+        assertNull(tokenService.verifyAccessToken(token));
+    }
+
+    @Test
+    void refresh_ValidToken_IssuesNewPair() {
+        when(userService.loadUserByUsername("user@test.com")).thenReturn(user);
+        String refreshToken = tokenService.issue(user).getRefreshToken();
+
+        TokenResponseDto tokens = tokenService.refresh(refreshToken);
+
+        assertNotNull(tokenService.verifyAccessToken(tokens.getAccessToken()));
+    }
+
+    @Test
+    void refresh_PasswordChanged_ThrowsBadCredentials() {
+        String refreshToken = tokenService.issue(user).getRefreshToken();
+        user.setPasswordHash("$2a$10$another");
+        when(userService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshToken));
+    }
+
+    @Test
+    void refresh_UserDisabled_ThrowsDisabled() {
+        String refreshToken = tokenService.issue(user).getRefreshToken();
+        user.setEnabled(false);
+        when(userService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        assertThrows(DisabledException.class, () -> tokenService.refresh(refreshToken));
+    }
+
+    @Test
+    void constructor_SecretMissingOrTooShort_FailsUnlessRandomAllowed() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> new TokenService(userService, authenticationCache, "",
+                Duration.ofMinutes(15), Duration.ofDays(7), false));
+        assertThrows(IllegalStateException.class, () -> new TokenService(userService, authenticationCache, shortSecret,
+                Duration.ofMinutes(15), Duration.ofDays(7), true));
+        assertNotNull(new TokenService(userService, authenticationCache, "",
+                Duration.ofMinutes(15), Duration.ofDays(7), true).issue(user));
+    }
+}
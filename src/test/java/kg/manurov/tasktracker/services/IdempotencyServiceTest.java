@@ -0,0 +1,191 @@
+package kg.manurov.tasktracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import kg.manurov.tasktracker.cache.IdempotencyStore;
+import kg.manurov.tasktracker.domain.dto.BulkCreateResultDto;
+import kg.manurov.tasktracker.domain.dto.BulkItemResultDto;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyStore store;
+
+    private final Map<String, String> stored = new ConcurrentHashMap<>();
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(store, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void execute_WithoutKey_AlwaysRunsAction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute("create-task", null, task("Задача"), TaskDto.class, () -> created(calls));
+        idempotencyService.execute("create-task", null, task("Задача"), TaskDto.class, () -> created(calls));
+
+        assertEquals(2, calls.get());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void execute_RepeatedKey_ReturnsStoredResponseWithoutRunningAction() {
+        mockStore();
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<TaskDto> first = idempotencyService.execute("create-task", "key-1", task("Задача"),
+                TaskDto.class, () -> created(calls));
+        ResponseEntity<TaskDto> second = idempotencyService.execute("create-task", "key-1", task("Задача"),
+                TaskDto.class, () -> created(calls));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody().getId(), second.getBody().getId());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_RepeatedKeyWithDifferentBody_ThrowsIllegalArgument() {
+        mockStore();
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("create-task", "key-1", task("Задача"), TaskDto.class, () -> created(calls));
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("create-task", "key-1",
+                task("Другая задача"), TaskDto.class, () -> created(calls)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_FailedAction_IsNotStoredAndCanBeRetried() {
+        mockStore();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("create-task", "key-1",
+                task("Задача"), TaskDto.class, () -> {
+                    throw new IllegalStateException("Сбой");
+                }));
+        ResponseEntity<TaskDto> retry = idempotencyService.execute("create-task", "key-1", task("Задача"),
+                TaskDto.class, () -> created(calls));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        verify(store, times(2)).unlock("create-task:key-1", "token");
+    }
+
+    @Test
+    void execute_BulkResult_IsRestoredOnReplay() {
+        mockStore();
+        BulkCreateResultDto result = new BulkCreateResultDto(1, 1, List.of(
+                BulkItemResultDto.created(0, 10L),
+                BulkItemResultDto.rejected(1, Map.of("title", List.of("Название задачи не может быть пустым")))));
+        idempotencyService.execute("create-tasks", "key-1", List.of(task("Задача")), BulkCreateResultDto.class,
+                () -> ResponseEntity.ok(result));
+
+        ResponseEntity<BulkCreateResultDto> replay = idempotencyService.execute("create-tasks", "key-1",
+                List.of(task("Задача")), BulkCreateResultDto.class, () -> fail("Запрос не должен выполняться повторно"));
+
+        assertEquals(1, replay.getBody().getCreated());
+        assertEquals(10L, replay.getBody().getItems().get(0).getId());
+        assertFalse(replay.getBody().getItems().get(1).isCreated());
+    }
+
+    @Test
+    void execute_StreamedBody_ReplaysSameBodyAndRejectsDifferentOne() {
+        mockStore();
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("import-tasks", "key-1", ndjson("{\"title\":\"Задача\"}"), TaskDto.class,
+                () -> created(calls));
+
+        ResponseEntity<TaskDto> replay = idempotencyService.execute("import-tasks", "key-1",
+                ndjson("{\"title\":\"Задача\"}"), TaskDto.class, () -> fail("Запрос не должен выполняться повторно"));
+
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("import-tasks", "key-1",
+                ndjson("{\"title\":\"Другая задача\"}"), TaskDto.class, () -> created(calls)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_RunActionOnce() throws Exception {
+        mockStore();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<TaskDto>> first = executor.submit(() -> idempotencyService.execute(
+                    "create-task", "key-1", task("Задача"), TaskDto.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return created(calls);
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<TaskDto>> second = executor.submit(() -> idempotencyService.execute(
+                    "create-task", "key-1", task("Задача"), TaskDto.class, () -> created(calls)));
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getBody().getId(),
+                    second.get(5, TimeUnit.SECONDS).getBody().getId());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyService.DigestedBody ndjson(String lines) {
+        return new IdempotencyService.DigestedBody(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void mockStore() {
+        lenient().when(store.get(anyString())).thenAnswer(invocation -> stored.get(invocation.<String>getArgument(0)));
+        lenient().doAnswer(invocation -> stored.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(store).put(anyString(), anyString());
+        lenient().when(store.tryLock(anyString())).thenReturn("token");
+    }
+
+    private ResponseEntity<TaskDto> created(AtomicInteger calls) {
+        TaskDto task = task("Задача").setId((long) calls.incrementAndGet());
+        return new ResponseEntity<>(task, HttpStatus.CREATED);
+    }
+
+    private TaskDto task(String title) {
+        return new TaskDto().setTitle(title).setDescription("Описание");
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
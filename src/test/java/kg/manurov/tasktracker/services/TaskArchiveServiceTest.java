@@ -0,0 +1,166 @@
+package kg.manurov.tasktracker.services;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.ArchivedTask;
+import kg.manurov.tasktracker.exception.TaskNotFoundException;
+import kg.manurov.tasktracker.repositories.ArchivedTaskRepository;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import kg.manurov.tasktracker.service.TaskArchiveService;
+import kg.manurov.tasktracker.service.TaskCacheService;
+import kg.manurov.tasktracker.service.TaskService;
+import kg.manurov.tasktracker.service.TaskStatusManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveServiceTest {
+
+    private static final List<String> FINAL_STATUSES = List.of("COMPLETED", "CANCELLED");
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskStatusManager statusManager;
+
+    @Mock
+    private TaskCacheService taskCacheService;
+
+    @Mock
+    private TaskTextIndex taskTextIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TaskArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new TaskArchiveService(taskService, taskRepository, archivedTaskRepository,
+                statusManager, taskCacheService, taskTextIndex, transactionTemplate);
+        ReflectionTestUtils.setField(archiveService, "minAge", Duration.ofDays(30));
+        ReflectionTestUtils.setField(archiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(archiveService, "maxBatches", 10);
+    }
+
+    @Test
+    void archiveFinishedTasks_SeveralBatches_MovesUntilPartialBatch() {
+        mockFinalStatuses();
+        mockTransactions();
+        when(taskRepository.findIdsToArchive(eq(FINAL_STATUSES), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(archivedTaskRepository.copyFromTasks(anyList(), eq(FINAL_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(2, 1);
+        when(taskRepository.deleteArchived(anyList(), eq(FINAL_STATUSES))).thenReturn(2, 1);
+
+        int archived = archiveService.archiveFinishedTasks();
+
+        assertEquals(3, archived);
+        verify(taskRepository, times(2)).findIdsToArchive(anyList(), any(LocalDateTime.class), any(Limit.class));
+        verify(taskCacheService).tasksArchived(List.of(1L, 2L), List.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED));
+        verify(taskCacheService).tasksArchived(List.of(3L), List.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED));
+    }
+
+    @Test
+    void archiveFinishedTasks_CopiedAndDeletedDiffer_ThrowsAndKeepsCache() {
+        mockFinalStatuses();
+        mockTransactions();
+        when(taskRepository.findIdsToArchive(eq(FINAL_STATUSES), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L));
+        when(archivedTaskRepository.copyFromTasks(anyList(), eq(FINAL_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(2);
+        when(taskRepository.deleteArchived(anyList(), eq(FINAL_STATUSES))).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> archiveService.archiveFinishedTasks());
+
+        verifyNoInteractions(taskCacheService);
+    }
+
+    @Test
+    void getTaskById_MissingInHotTable_ReadsArchive() {
+        ArchivedTask archived = new ArchivedTask();
+        archived.setId(7L);
+        archived.setTitle("Старая задача");
+        archived.setStatus(TaskStatus.COMPLETED.name());
+        archived.setVersion(2L);
+        when(taskService.getTaskById(7L)).thenThrow(new TaskNotFoundException("Задача с ID 7 не найдена"));
+        when(archivedTaskRepository.findById(7L)).thenReturn(Optional.of(archived));
+
+        TaskDto result = archiveService.getTaskById(7L, true);
+
+        assertEquals("Старая задача", result.getTitle());
+        assertEquals(2L, result.getVersion());
+    }
+
+    @Test
+    void getTaskById_WithoutArchive_DoesNotReadArchive() {
+        when(taskService.getTaskById(7L)).thenThrow(new TaskNotFoundException("Задача с ID 7 не найдена"));
+
+        assertThrows(TaskNotFoundException.class, () -> archiveService.getTaskById(7L, false));
+
+        verifyNoInteractions(archivedTaskRepository);
+    }
+
+    @Test
+    void getTasksByStatus_ActiveStatus_DoesNotReadArchive() {
+        when(taskService.getTasksByStatus(TaskStatus.PENDING)).thenReturn(List.of(new TaskDto().setId(1L)));
+        when(statusManager.isFinalStatus(TaskStatus.PENDING)).thenReturn(false);
+
+        List<TaskDto> result = archiveService.getTasksByStatus(TaskStatus.PENDING, true, true);
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(archivedTaskRepository);
+    }
+
+    @Test
+    void getTasksByStatus_WithoutDescription_ReadsSummariesFromBothTables() {
+        when(taskService.getTaskSummariesByStatus(TaskStatus.COMPLETED)).thenReturn(List.of(new TaskDto().setId(1L)));
+        when(statusManager.isFinalStatus(TaskStatus.COMPLETED)).thenReturn(true);
+        when(archivedTaskRepository.findSummariesByStatus(TaskStatus.COMPLETED.name()))
+                .thenReturn(List.of(new TaskDto().setId(2L)));
+
+        List<TaskDto> result = archiveService.getTasksByStatus(TaskStatus.COMPLETED, true, false);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(TaskDto::getId).toList());
+        verify(taskService, never()).getTasksByStatus(any());
+        verify(archivedTaskRepository, never()).findDtosByStatus(any());
+    }
+
+    private void mockFinalStatuses() {
+        for (TaskStatus status : TaskStatus.values()) {
+            when(statusManager.isFinalStatus(status))
+                    .thenReturn(status == TaskStatus.COMPLETED || status == TaskStatus.CANCELLED);
+        }
+    }
+
+    private void mockTransactions() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
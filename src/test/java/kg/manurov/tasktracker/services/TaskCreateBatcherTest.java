@@ -0,0 +1,128 @@
+package kg.manurov.tasktracker.services;
+
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.service.TaskCreateBatcher;
+import kg.manurov.tasktracker.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCreateBatcherTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private final AtomicLong ids = new AtomicLong();
+    private TaskCreateBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.destroy();
+    }
+
+    @Test
+    void create_Disabled_CreatesImmediately() {
+        batcher = batcher(false, Duration.ofMillis(5), 10);
+        batcher.afterPropertiesSet();
+        when(taskService.createTask(any(TaskDto.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        TaskDto result = batcher.create(task("Задача"));
+
+        assertEquals(1L, result.getId());
+        verify(taskService, never()).createTasks(anyList());
+    }
+
+    @Test
+    void create_ConcurrentCallsWithinWindow_WrittenAsOneGroup() throws Exception {
+        batcher = batcher(true, Duration.ofMillis(500), 4);
+        batcher.afterPropertiesSet();
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            List<TaskDto> tasks = invocation.getArgument(0);
+            return tasks.stream().map(this::withId).toList();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TaskDto>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String title = "Задача " + i;
+                results.add(executor.submit(() -> batcher.create(task(title))));
+            }
+
+            List<Long> createdIds = new ArrayList<>();
+            for (Future<TaskDto> result : results) {
+                createdIds.add(result.get(5, TimeUnit.SECONDS).getId());
+            }
+            assertEquals(4, createdIds.stream().distinct().count());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(taskService, times(1)).createTasks(anyList());
+        verify(taskService, never()).createTask(any(TaskDto.class));
+    }
+
+    @Test
+    void create_GroupWriteFails_FallsBackToSingleCreates() {
+        batcher = batcher(true, Duration.ofMillis(1), 10);
+        batcher.afterPropertiesSet();
+        when(taskService.createTasks(anyList())).thenThrow(new IllegalStateException("Сбой пакетной вставки"));
+        when(taskService.createTask(any(TaskDto.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        TaskDto result = batcher.create(task("Задача"));
+
+        assertNotNull(result.getId());
+        verify(taskService).createTask(any(TaskDto.class));
+    }
+
+    @Test
+    void create_SingleCreateFails_RethrowsToCaller() {
+        batcher = batcher(true, Duration.ofMillis(1), 10);
+        batcher.afterPropertiesSet();
+        when(taskService.createTasks(anyList())).thenThrow(new IllegalStateException("Сбой пакетной вставки"));
+        when(taskService.createTask(any(TaskDto.class))).thenThrow(new IllegalArgumentException("Некорректная задача"));
+
+        assertThrows(IllegalArgumentException.class, () -> batcher.create(task("Задача")));
+    }
+
+    @Test
+    void create_AfterDestroy_CreatesImmediately() throws InterruptedException {
+        batcher = batcher(true, Duration.ofMillis(1), 10);
+        batcher.afterPropertiesSet();
+        batcher.destroy();
+        when(taskService.createTask(any(TaskDto.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        TaskDto result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> batcher.create(task("Задача")));
+
+        assertNotNull(result.getId());
+        verify(taskService, never()).createTasks(anyList());
+    }
+
+    private TaskCreateBatcher batcher(boolean enabled, Duration window, int maxBatchSize) {
+        return new TaskCreateBatcher(taskService, enabled, window, maxBatchSize, 100);
+    }
+
+    private TaskDto withId(TaskDto task) {
+        return new TaskDto().setId(ids.incrementAndGet()).setTitle(task.getTitle());
+    }
+
+    private TaskDto task(String title) {
+        return new TaskDto().setTitle(title).setDescription("Описание");
+    }
+}
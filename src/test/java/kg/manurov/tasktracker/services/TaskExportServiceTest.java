@@ -0,0 +1,90 @@
+package kg.manurov.tasktracker.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.ExportFormat;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.service.TaskExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TaskExportService(taskRepository, objectMapper);
+    }
+
+    @Test
+    void exportTasks_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(taskRepository.streamAllDtos()).thenReturn(Stream.of(
+                createTask(2L, "Вторая", "Описание", TaskStatus.IN_PROGRESS),
+                createTask(1L, "Первая", null, TaskStatus.PENDING)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportTasks(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2L, first.get("id").asLong());
+        assertEquals("Вторая", first.get("title").asText());
+        assertEquals("2025-01-01T12:00:00", first.get("createdAt").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("description").isNull());
+    }
+
+    @Test
+    void exportTasks_Csv_EscapesSpecialCharacters() throws Exception {
+        when(taskRepository.streamAllDtos()).thenReturn(Stream.of(
+                createTask(1L, "Задача, с запятой", "Строка \"в кавычках\"\nи перенос", TaskStatus.PENDING)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportTasks(ExportFormat.CSV, out);
+
+        assertEquals("""
+                id,title,description,status,createdAt,updatedAt
+                1,"Задача, с запятой","Строка ""в кавычках""
+                и перенос",PENDING,2025-01-01T12:00:00,2025-01-01T12:00:00
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTasks_EmptyTable_WritesOnlyCsvHeader() throws Exception {
+        when(taskRepository.streamAllDtos()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportTasks(ExportFormat.CSV, out);
+
+        assertEquals(0, count);
+        assertEquals("id,title,description,status,createdAt,updatedAt\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private TaskDto createTask(Long id, String title, String description, TaskStatus status) {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 12, 0);
+        return new TaskDto(id, title, description, status.name(), timestamp, timestamp, 0L);
+    }
+}
@@ -0,0 +1,150 @@
+package kg.manurov.tasktracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import kg.manurov.tasktracker.domain.dto.BulkCreateResultDto;
+import kg.manurov.tasktracker.domain.dto.BulkItemResultDto;
+import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import kg.manurov.tasktracker.service.TaskCacheService;
+import kg.manurov.tasktracker.service.TaskImportService;
+import kg.manurov.tasktracker.service.TaskStatusCounters;
+import kg.manurov.tasktracker.service.TaskStatusManager;
+import kg.manurov.tasktracker.strategy.TaskStatusStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskStatusManager statusManager;
+
+    @Mock
+    private TaskCacheService taskCacheService;
+
+    @Mock
+    private TaskStatusCounters statusCounters;
+
+    @Mock
+    private TaskTextIndex taskTextIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TaskStatusStrategy pendingStrategy;
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private TaskImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new TaskImportService(taskRepository, statusManager, taskCacheService, statusCounters, taskTextIndex, entityManager,
+                new ObjectMapper(), validatorFactory.getValidator());
+        ReflectionTestUtils.setField(importService, "maxSize", 5);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void createTasks_MixedItems_SavesValidInChunksAndReportsEachItem() {
+        mockSaveAll();
+        List<TaskDto> tasks = List.of(
+                createDto("Первая", "Описание"),
+                createDto("", "Описание"),
+                createDto("Вторая", "Описание"),
+                createDto("Третья", "Описание").setStatus("COMPLETED"));
+
+        BulkCreateResultDto result = importService.createTasks(tasks);
+
+        assertEquals(3, result.getCreated());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of(0, 1, 2, 3), result.getItems().stream().map(BulkItemResultDto::getIndex).toList());
+        BulkItemResultDto rejected = result.getItems().get(1);
+        assertFalse(rejected.isCreated());
+        assertTrue(rejected.getErrors().containsKey("title"));
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertEquals(3L, result.getItems().get(3).getId());
+
+        verify(taskRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(pendingStrategy, times(2)).onEnterAll(anyList());
+        verify(taskCacheService, times(1)).tasksCreated(TaskStatus.PENDING);
+    }
+
+    @Test
+    void importNdjson_InvalidLine_RejectedWithoutStoppingImport() {
+        mockSaveAll();
+        String body = """
+                {"title":"Первая","description":"Описание"}
+                {"title":
+
+                {"title":"Вторая","description":"Описание","status":"unknown"}
+                {"title":"Третья","description":"Описание"}
+                """;
+
+        BulkCreateResultDto result = importService.importNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertTrue(result.getItems().get(1).getErrors().containsKey("json"));
+        assertTrue(result.getItems().get(2).getErrors().containsKey("status"));
+        assertTrue(result.getItems().get(3).isCreated());
+    }
+
+    @Test
+    void createTasks_TooManyItems_ThrowsBeforeSaving() {
+        List<TaskDto> tasks = java.util.stream.IntStream.range(0, 6)
+                .mapToObj(i -> createDto("Задача " + i, "Описание"))
+                .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> importService.createTasks(tasks));
+
+        verifyNoInteractions(taskRepository, taskCacheService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockSaveAll() {
+        AtomicLong ids = new AtomicLong();
+        when(statusManager.getStrategy(TaskStatus.PENDING)).thenReturn(pendingStrategy);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+    }
+
+    private TaskDto createDto(String title, String description) {
+        return new TaskDto().setTitle(title).setDescription(description);
+    }
+}
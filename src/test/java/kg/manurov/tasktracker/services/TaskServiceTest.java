@@ -1,11 +1,21 @@
 package kg.manurov.tasktracker.services;
 
+import kg.manurov.tasktracker.domain.dto.BulkStatusChangeResultDto;
+import kg.manurov.tasktracker.domain.dto.TaskCursor;
 import kg.manurov.tasktracker.domain.dto.TaskDto;
+import kg.manurov.tasktracker.domain.dto.TaskFields;
+import kg.manurov.tasktracker.domain.dto.TaskPageDto;
+import kg.manurov.tasktracker.domain.dto.TaskPatchDto;
 import kg.manurov.tasktracker.domain.enums.TaskStatus;
 import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.exception.InvalidStatusTransitionException;
+import kg.manurov.tasktracker.exception.PreconditionFailedException;
 import kg.manurov.tasktracker.exception.TaskNotFoundException;
 import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.search.TaskTextIndex;
+import kg.manurov.tasktracker.service.TaskCacheService;
 import kg.manurov.tasktracker.service.TaskService;
+import kg.manurov.tasktracker.service.TaskStatusCounters;
 import kg.manurov.tasktracker.service.TaskStatusManager;
 import kg.manurov.tasktracker.strategy.TaskStatusStrategy;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,16 +24,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +55,15 @@ class TaskServiceTest {
     @Mock
     private TaskStatusStrategy statusStrategy;
 
+    @Mock
+    private TaskCacheService taskCacheService;
+
+    @Mock
+    private TaskStatusCounters statusCounters;
+
+    @Mock
+    private TaskTextIndex taskTextIndex;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -63,6 +88,10 @@ class TaskServiceTest {
         testTaskRequest.setStatus(TaskStatus.PENDING.name());
         testTaskRequest.setCreatedAt(LocalDateTime.now());
         testTaskRequest.setUpdatedAt(LocalDateTime.now());
+
+        ReflectionTestUtils.setField(taskService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(taskService, "maxPageSize", 10);
+        ReflectionTestUtils.setField(taskService, "maxBulkSize", 10);
     }
 
     @Test
@@ -86,6 +115,31 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(statusManager, times(1)).getStrategy(TaskStatus.PENDING);
         verify(statusStrategy, times(1)).onEnter(any(Task.class));
+        verify(taskCacheService, times(1)).taskCreated(result);
+    }
+
+    @Test
+    void createTasks_Group_SavesInOneCallAndEvictsListsOnce() {
+        TaskDto first = new TaskDto().setTitle("Первая").setDescription("Описание");
+        TaskDto second = new TaskDto().setTitle("Вторая").setDescription("Описание");
+
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).setId(i + 10L);
+            }
+            return tasks;
+        });
+        when(statusManager.getStrategy(TaskStatus.PENDING)).thenReturn(statusStrategy);
+
+        List<TaskDto> result = taskService.createTasks(List.of(first, second));
+
+        assertEquals(List.of(10L, 11L), result.stream().map(TaskDto::getId).toList());
+        assertTrue(result.stream().allMatch(task -> TaskStatus.PENDING.name().equals(task.getStatus())));
+        verify(taskRepository, times(1)).saveAll(anyList());
+        verify(taskRepository, times(1)).flush();
+        verify(statusStrategy, times(1)).onEnterAll(anyList());
+        verify(taskCacheService, times(1)).tasksCreated(TaskStatus.PENDING);
     }
 
     @Test
@@ -170,13 +224,13 @@ class TaskServiceTest {
 
     @Test
     void getAllTasks_Success() {
-        List<Task> mockTasks = Arrays.asList(
-                createMockTask(1L, "Задача 1", TaskStatus.PENDING),
-                createMockTask(2L, "Задача 2", TaskStatus.IN_PROGRESS),
-                createMockTask(3L, "Задача 3", TaskStatus.COMPLETED)
+        List<TaskDto> mockTasks = Arrays.asList(
+                createMockTaskDto(1L, "Задача 1", TaskStatus.PENDING),
+                createMockTaskDto(2L, "Задача 2", TaskStatus.IN_PROGRESS),
+                createMockTaskDto(3L, "Задача 3", TaskStatus.COMPLETED)
         );
 
-        when(taskRepository.findAllByOrderByCreatedAtDesc()).thenReturn(mockTasks);
+        when(taskRepository.findAllDtos()).thenReturn(mockTasks);
 
         List<TaskDto> result = taskService.getAllTasks();
 
@@ -186,19 +240,69 @@ class TaskServiceTest {
         assertEquals("Задача 2", result.get(1).getTitle());
         assertEquals("Задача 3", result.get(2).getTitle());
 
-        verify(taskRepository, times(1)).findAllByOrderByCreatedAtDesc();
+        verify(taskRepository, times(1)).findAllDtos();
     }
 
     @Test
     void getAllTasks_EmptyList() {
-        when(taskRepository.findAllByOrderByCreatedAtDesc()).thenReturn(Arrays.asList());
+        when(taskRepository.findAllDtos()).thenReturn(Arrays.asList());
 
         List<TaskDto> result = taskService.getAllTasks();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(taskRepository, times(1)).findAllByOrderByCreatedAtDesc();
+        verify(taskRepository, times(1)).findAllDtos();
+    }
+
+    @Test
+    void getTasksPage_FirstPage_ReturnsCursorForNextPage() {
+        List<TaskDto> mockTasks = Arrays.asList(
+                createMockTaskDto(3L, "Задача 3", TaskStatus.PENDING),
+                createMockTaskDto(2L, "Задача 2", TaskStatus.IN_PROGRESS),
+                createMockTaskDto(1L, "Задача 1", TaskStatus.COMPLETED)
+        );
+
+        when(taskRepository.findDtoPage(Limit.of(3))).thenReturn(mockTasks);
+
+        TaskPageDto result = taskService.getTasksPage(null, null, TaskFields.ALL);
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(2L, TaskCursor.decode(result.getNextCursor()).id());
+    }
+
+    @Test
+    void getTasksPage_WithCursor_QueriesAfterCursorPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        String cursor = new TaskCursor(createdAt, 2L).encode();
+
+        when(taskRepository.findDtoPageAfter(createdAt, 2L, Limit.of(3)))
+                .thenReturn(List.of(createMockTaskDto(1L, "Задача 1", TaskStatus.PENDING)));
+
+        TaskPageDto result = taskService.getTasksPage(cursor, null, TaskFields.ALL);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getTasksPage_FieldsWithoutDescription_ReadsSummaries() {
+        when(taskRepository.findSummaryPage(Limit.of(3)))
+                .thenReturn(List.of(createMockTaskDto(1L, "Задача 1", TaskStatus.PENDING)));
+
+        TaskPageDto result = taskService.getTasksPage(null, null, TaskFields.parse("id,title"));
+
+        assertEquals(1, result.getContent().size());
+        verify(taskRepository, never()).findDtoPage(any());
+    }
+
+    @Test
+    void getTasksPage_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksPage("не-курсор", null, TaskFields.ALL));
+
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -240,6 +344,7 @@ class TaskServiceTest {
 
         when(taskRepository.findById(TEST_ID)).thenReturn(Optional.of(testTask));
         when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+        when(statusManager.canTransition(TaskStatus.PENDING, TaskStatus.IN_PROGRESS)).thenReturn(true);
         doNothing().when(statusManager).executeTransition(any(Task.class), any(TaskStatus.class));
 
         TaskDto result = taskService.updateTask(TEST_ID, updateRequest);
@@ -252,6 +357,7 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(TEST_ID);
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(statusManager, times(1)).executeTransition(any(Task.class), eq(TaskStatus.IN_PROGRESS));
+        verify(taskCacheService, times(1)).taskUpdated(result, TaskStatus.PENDING);
     }
 
     @Test
@@ -270,6 +376,57 @@ class TaskServiceTest {
         verify(statusManager, never()).executeTransition(any(Task.class), any(TaskStatus.class));
     }
 
+    @Test
+    void updateTask_StaleVersion_ThrowsPreconditionFailed() {
+        testTask.setVersion(4L);
+        TaskDto updateRequest = new TaskDto();
+        updateRequest.setTitle("Новый заголовок");
+
+        when(taskRepository.findById(TEST_ID)).thenReturn(Optional.of(testTask));
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(TEST_ID, updateRequest, 3L));
+
+        verify(taskRepository, never()).save(any(Task.class));
+        verifyNoInteractions(taskCacheService);
+    }
+
+    @Test
+    void patchTask_MatchingVersion_ReturnsNextVersion() {
+        TaskPatchDto patch = new TaskPatchDto("Новый заголовок", null);
+
+        when(taskRepository.patch(eq(TEST_ID), eq(3L), eq("Новый заголовок"), isNull(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        long version = taskService.patchTask(TEST_ID, patch, 3L);
+
+        assertEquals(4L, version);
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskCacheService).taskPatched(TEST_ID);
+    }
+
+    @Test
+    void patchTask_StaleVersion_ThrowsPreconditionFailed() {
+        TaskPatchDto patch = new TaskPatchDto(null, "Новое описание");
+
+        when(taskRepository.patch(eq(TEST_ID), eq(3L), isNull(), eq("Новое описание"), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(taskRepository.existsById(TEST_ID)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.patchTask(TEST_ID, patch, 3L));
+
+        verifyNoInteractions(taskCacheService);
+    }
+
+    @Test
+    void patchTask_MissingTask_ThrowsNotFound() {
+        TaskPatchDto patch = new TaskPatchDto("Новый заголовок", null);
+
+        when(taskRepository.patch(eq(999L), eq(0L), any(), any(), any(LocalDateTime.class))).thenReturn(0);
+        when(taskRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTask(999L, patch, 0L));
+    }
+
     @Test
     void updateTask_InvalidStatus_ThrowsException() {
         TaskDto updateRequest = new TaskDto();
@@ -285,6 +442,25 @@ class TaskServiceTest {
         verify(taskRepository, never()).save(any(Task.class));
     }
 
+    @Test
+    void updateTask_ForbiddenTransition_ThrowsWithoutChanges() {
+        TaskDto updateRequest = new TaskDto();
+        updateRequest.setTitle("Новый заголовок");
+        updateRequest.setStatus(TaskStatus.COMPLETED.name());
+
+        when(taskRepository.findById(TEST_ID)).thenReturn(Optional.of(testTask));
+        when(statusManager.canTransition(TaskStatus.PENDING, TaskStatus.COMPLETED)).thenReturn(false);
+
+        assertThrows(InvalidStatusTransitionException.class, () -> {
+            taskService.updateTask(TEST_ID, updateRequest);
+        });
+
+        assertEquals("Тестовая задача", testTask.getTitle());
+        verify(taskRepository, times(1)).findById(TEST_ID);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(statusManager, never()).executeTransition(any(Task.class), any(TaskStatus.class));
+    }
+
     @Test
     void updateTask_NotFound_ThrowsException() {
         TaskDto updateRequest = new TaskDto();
@@ -319,6 +495,7 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(TEST_ID);
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(statusManager, times(1)).executeTransition(any(Task.class), eq(newStatus));
+        verify(taskCacheService, times(1)).taskUpdated(result, TaskStatus.PENDING);
     }
 
     @Test
@@ -335,6 +512,7 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(TEST_ID);
         verify(taskRepository, never()).save(any(Task.class));
         verify(statusManager, never()).executeTransition(any(Task.class), any(TaskStatus.class));
+        verifyNoInteractions(taskCacheService);
     }
 
     @Test
@@ -349,6 +527,52 @@ class TaskServiceTest {
         verify(statusManager, never()).executeTransition(any(Task.class), any(TaskStatus.class));
     }
 
+    @Test
+    void changeTaskStatuses_WithoutHooks_UpdatesValidTasksInOneQuery() {
+        when(statusManager.hasTransitionHooks(TaskStatus.COMPLETED)).thenReturn(false);
+        when(taskRepository.findStatusesByIdIn(any())).thenReturn(List.of(
+                statusView(1L, TaskStatus.IN_PROGRESS),
+                statusView(2L, TaskStatus.PENDING),
+                statusView(3L, TaskStatus.COMPLETED)));
+        when(statusManager.canTransition(TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED)).thenReturn(true);
+        when(statusManager.canTransition(TaskStatus.PENDING, TaskStatus.COMPLETED)).thenReturn(false);
+        when(taskRepository.updateStatus(eq(List.of(1L)), eq(List.of(TaskStatus.IN_PROGRESS.name())),
+                eq(TaskStatus.COMPLETED.name()), any(LocalDateTime.class))).thenReturn(1);
+
+        BulkStatusChangeResultDto result = taskService.changeTaskStatuses(List.of(1L, 2L, 3L, 4L, 1L), TaskStatus.COMPLETED);
+
+        assertEquals(List.of(1L), result.getUpdated());
+        assertEquals(List.of(3L), result.getUnchanged());
+        assertEquals(List.of(2L, 4L), List.copyOf(result.getFailed().keySet()));
+        verify(taskRepository, never()).findAllById(any());
+        verify(statusManager, never()).executeTransition(any(Task.class), any(TaskStatus.class));
+        verify(taskCacheService, times(1)).tasksUpdated(List.of(1L), Set.of(TaskStatus.IN_PROGRESS), TaskStatus.COMPLETED);
+        verify(statusCounters, times(1)).moved(TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, 1);
+    }
+
+    @Test
+    void changeTaskStatuses_WithHooks_RunsTransitionForEachLoadedTask() {
+        when(statusManager.hasTransitionHooks(TaskStatus.IN_PROGRESS)).thenReturn(true);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(testTask));
+        when(statusManager.canTransition(TaskStatus.PENDING, TaskStatus.IN_PROGRESS)).thenReturn(true);
+
+        BulkStatusChangeResultDto result = taskService.changeTaskStatuses(List.of(TEST_ID), TaskStatus.IN_PROGRESS);
+
+        assertEquals(List.of(TEST_ID), result.getUpdated());
+        verify(statusManager, times(1)).executeTransition(testTask, TaskStatus.IN_PROGRESS);
+        verify(taskRepository, times(1)).flush();
+        verify(taskRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void changeTaskStatuses_TooManyIds_ThrowsException() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 11).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.changeTaskStatuses(ids, TaskStatus.CANCELLED));
+
+        verifyNoInteractions(taskRepository);
+    }
+
     @Test
     void deleteTask_Success() {
         when(taskRepository.findById(TEST_ID)).thenReturn(Optional.of(testTask));
@@ -360,6 +584,8 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(TEST_ID);
         verify(taskRepository, times(1)).delete(testTask);
         verify(statusManager, times(1)).isFinalStatus(TaskStatus.PENDING);
+        verify(taskCacheService, times(1)).taskDeleted(TEST_ID, TaskStatus.PENDING);
+        verify(statusCounters, times(1)).deleted(TaskStatus.PENDING);
     }
 
     @Test
@@ -394,12 +620,12 @@ class TaskServiceTest {
     @Test
     void getTasksByStatus_Success() {
         TaskStatus status = TaskStatus.IN_PROGRESS;
-        List<Task> mockTasks = Arrays.asList(
-                createMockTask(1L, "Задача 1", status),
-                createMockTask(2L, "Задача 2", status)
+        List<TaskDto> mockTasks = Arrays.asList(
+                createMockTaskDto(1L, "Задача 1", status),
+                createMockTaskDto(2L, "Задача 2", status)
         );
 
-        when(taskRepository.findByStatus(status.name())).thenReturn(mockTasks);
+        when(taskRepository.findDtosByStatus(status.name())).thenReturn(mockTasks);
 
         List<TaskDto> result = taskService.getTasksByStatus(status);
 
@@ -408,20 +634,33 @@ class TaskServiceTest {
         assertEquals(status.name(), result.get(0).getStatus());
         assertEquals(status.name(), result.get(1).getStatus());
 
-        verify(taskRepository, times(1)).findByStatus(status.name());
+        verify(taskRepository, times(1)).findDtosByStatus(status.name());
     }
 
     @Test
     void getTasksByStatus_EmptyList() {
         TaskStatus status = TaskStatus.CANCELLED;
-        when(taskRepository.findByStatus(status.name())).thenReturn(Arrays.asList());
+        when(taskRepository.findDtosByStatus(status.name())).thenReturn(Arrays.asList());
 
         List<TaskDto> result = taskService.getTasksByStatus(status);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(taskRepository, times(1)).findByStatus(status.name());
+        verify(taskRepository, times(1)).findDtosByStatus(status.name());
+    }
+
+    @Test
+    void getTaskSummariesByStatus_ReadsProjectionWithoutDescription() {
+        TaskStatus status = TaskStatus.PENDING;
+        when(taskRepository.findSummariesByStatus(status.name()))
+                .thenReturn(List.of(new TaskDto(1L, "Задача 1", status.name(), null, null, 0L)));
+
+        List<TaskDto> result = taskService.getTaskSummariesByStatus(status);
+
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getDescription());
+        verify(taskRepository, never()).findDtosByStatus(anyString());
     }
 
     @Test
@@ -457,14 +696,22 @@ class TaskServiceTest {
         verify(statusManager, never()).getAvailableTransitions(any(TaskStatus.class));
     }
 
-    private Task createMockTask(Long id, String title, TaskStatus status) {
-        Task task = new Task();
-        task.setId(id);
-        task.setTitle(title);
-        task.setDescription("Описание для " + title);
-        task.setStatus(status.name());
-        task.setCreatedAt(LocalDateTime.now());
-        task.setUpdatedAt(LocalDateTime.now());
-        return task;
+    private TaskDto createMockTaskDto(Long id, String title, TaskStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TaskDto(id, title, "Описание для " + title, status.name(), now, now, 0L);
+    }
+
+    private TaskRepository.StatusView statusView(Long id, TaskStatus status) {
+        return new TaskRepository.StatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getStatus() {
+                return status.name();
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package kg.manurov.tasktracker.services;
+
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.repositories.ArchivedTaskRepository;
+import kg.manurov.tasktracker.repositories.TaskRepository;
+import kg.manurov.tasktracker.service.TaskStatusCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatusCountersTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    private TaskStatusCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new TaskStatusCounters(taskRepository, archivedTaskRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reconcile_SumsHotAndArchivedTasks() {
+        when(taskRepository.countByStatus()).thenReturn(List.of(
+                count(TaskStatus.PENDING, 3), count(TaskStatus.COMPLETED, 2)));
+        when(archivedTaskRepository.countByStatus()).thenReturn(List.of(count(TaskStatus.COMPLETED, 10)));
+
+        counters.reconcile();
+
+        assertEquals(3L, counters.getCounts().get(TaskStatus.PENDING));
+        assertEquals(12L, counters.getCounts().get(TaskStatus.COMPLETED));
+        assertEquals(0L, counters.getCounts().get(TaskStatus.CANCELLED));
+    }
+
+    @Test
+    void reconcile_CorrectsDrift() {
+        when(taskRepository.countByStatus()).thenReturn(List.of(count(TaskStatus.PENDING, 1)));
+        when(archivedTaskRepository.countByStatus()).thenReturn(List.of());
+        counters.created(TaskStatus.PENDING, 5);
+        counters.created(TaskStatus.IN_PROGRESS, 2);
+
+        counters.reconcile();
+
+        assertEquals(1L, counters.getCounts().get(TaskStatus.PENDING));
+        assertEquals(0L, counters.getCounts().get(TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void moved_WithoutTransaction_AppliesImmediately() {
+        counters.created(TaskStatus.PENDING, 2);
+
+        counters.moved(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+        counters.deleted(TaskStatus.PENDING);
+
+        assertEquals(0L, counters.getCounts().get(TaskStatus.PENDING));
+        assertEquals(1L, counters.getCounts().get(TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void created_InTransaction_AppliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counters.created(TaskStatus.PENDING, 1);
+        assertEquals(0L, counters.getCounts().get(TaskStatus.PENDING));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, counters.getCounts().get(TaskStatus.PENDING));
+    }
+
+    private TaskRepository.StatusCountView count(TaskStatus status, long count) {
+        return new TaskRepository.StatusCountView() {
+            @Override
+            public String getStatus() {
+                return status.name();
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
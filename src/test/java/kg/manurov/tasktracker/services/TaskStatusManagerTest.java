@@ -0,0 +1,115 @@
+package kg.manurov.tasktracker.services;
+
+import kg.manurov.tasktracker.domain.enums.TaskStatus;
+import kg.manurov.tasktracker.domain.models.Task;
+import kg.manurov.tasktracker.service.TaskStatusCounters;
+import kg.manurov.tasktracker.service.TaskStatusManager;
+import kg.manurov.tasktracker.strategy.impl.CancelledStatusStrategy;
+import kg.manurov.tasktracker.strategy.impl.CompletedStatusStrategy;
+import kg.manurov.tasktracker.strategy.impl.InProgressStatusStrategy;
+import kg.manurov.tasktracker.strategy.impl.PendingStatusStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+class TaskStatusManagerTest {
+
+    private final TaskStatusCounters statusCounters = mock(TaskStatusCounters.class);
+    private TaskStatusManager statusManager;
+
+    @BeforeEach
+    void setUp() {
+        statusManager = new TaskStatusManager(List.of(
+                new PendingStatusStrategy(),
+                new InProgressStatusStrategy(),
+                new CompletedStatusStrategy(),
+                new CancelledStatusStrategy()), statusCounters);
+        statusManager.init();
+    }
+
+    @Test
+    void canTransition_MatchesStrategies() {
+        for (TaskStatus from : TaskStatus.values()) {
+            for (TaskStatus to : TaskStatus.values()) {
+                assertEquals(statusManager.getStrategy(from).getAllowedTransitions().contains(to),
+                        statusManager.canTransition(from, to), from + " -> " + to);
+            }
+        }
+        assertTrue(statusManager.canTransition(TaskStatus.IN_PROGRESS, TaskStatus.PENDING));
+        assertFalse(statusManager.canTransition(TaskStatus.PENDING, TaskStatus.COMPLETED));
+        assertTrue(statusManager.isFinalStatus(TaskStatus.COMPLETED));
+        assertFalse(statusManager.isFinalStatus(TaskStatus.IN_PROGRESS));
+        assertFalse(statusManager.hasTransitionHooks(TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void executeTransition_FromFinalStatus_ThrowsAndKeepsStatus() {
+        Task task = new Task();
+        task.setStatus(TaskStatus.CANCELLED.name());
+
+        assertThrows(IllegalStateException.class,
+                () -> statusManager.executeTransition(task, TaskStatus.PENDING));
+        assertEquals(TaskStatus.CANCELLED.name(), task.getStatus());
+
+        task.setStatus(TaskStatus.PENDING.name());
+        statusManager.executeTransition(task, TaskStatus.IN_PROGRESS);
+        assertEquals(TaskStatus.IN_PROGRESS.name(), task.getStatus());
+        verify(statusCounters, times(1)).moved(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void init_MissingStrategy_FailsFast() {
+        TaskStatusManager incomplete = new TaskStatusManager(List.of(new PendingStatusStrategy()), statusCounters);
+
+        assertThrows(IllegalStateException.class, incomplete::init);
+    }
+
+    @Test
+    void fromString_IgnoresCaseAndWhitespace() {
+        assertEquals(TaskStatus.IN_PROGRESS, TaskStatus.fromString("  in_progress ").orElseThrow());
+        assertTrue(TaskStatus.fromString("DONE").isEmpty());
+        assertTrue(TaskStatus.fromString("   ").isEmpty());
+        assertFalse(TaskStatus.exists(null));
+    }
+
+    @Test
+    void hotPath_DoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        String[] inputs = {"PENDING", " in_progress", "Completed ", "cancelled"};
+        TaskStatus[] statuses = TaskStatus.values();
+        long checksum = runHotPath(inputs, statuses, 200_000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        checksum += runHotPath(inputs, statuses, 1_000_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated < 1024, "Выделено байт на горячем пути: " + allocated);
+    }
+
+    private long runHotPath(String[] inputs, TaskStatus[] statuses, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            TaskStatus from = statuses[i & 3];
+            TaskStatus to = TaskStatus.fromString(inputs[(i >>> 2) & 3]).orElse(TaskStatus.PENDING);
+            if (statusManager.canTransition(from, to)) {
+                checksum++;
+            }
+            checksum += statusManager.getAvailableTransitions(from).size();
+            if (statusManager.isFinalStatus(to)) {
+                checksum++;
+            }
+        }
+        return checksum;
+    }
+}